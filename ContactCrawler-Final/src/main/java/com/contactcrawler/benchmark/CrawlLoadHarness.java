@@ -0,0 +1,224 @@
+package com.contactcrawler.benchmark;
+
+import com.contactcrawler.ContactCrawlerApplication;
+import com.contactcrawler.model.CrawlJob;
+import com.contactcrawler.service.CrawlerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end crawl load test without network access: serves a
+ * {@link SyntheticSite} on loopback, boots the application against an
+ * in-memory database and crawls the whole site with
+ * {@link CrawlerService#startCrawling}, then reports pages/sec, fetch latency
+ * percentiles, server-side concurrency and backlog, peak heap, GC and the
+ * database write rate.
+ * <p>
+ * Arguments of the form {@code name=value} shape the site and the run
+ * (fanout, depth, hosts, crossLinks, latencyMedianMs, latencySigma, errorRate,
+ * pageBytes, seed, runs, timeoutSeconds); arguments starting with {@code --}
+ * are passed to Spring, e.g. {@code --crawler.workers.per.job=16}. In the
+ * default platform mode each worker blocks on the frontier in its own thread
+ * of the fixed crawler pool until the job ends, so at most
+ * {@code crawler.thread.pool.size} of them fetch at once; give the pool as
+ * many threads as workers. With {@code --crawler.executor.mode=virtual} every
+ * URL runs on its own virtual thread and
+ * {@code crawler.virtual.max.concurrency} bounds the fetches instead. Each run
+ * gets a fresh application context and its own URLs; with the default of
+ * three runs the first one is JIT warm-up.
+ * <pre>
+ * java -cp target/benchmarks.jar com.contactcrawler.benchmark.CrawlLoadHarness fanout=10 depth=3 latencyMedianMs=50
+ * </pre>
+ * Hosts 127.0.0.2 and up need the whole 127.0.0.0/8 block on loopback, as on
+ * Linux; elsewhere use hosts=1 with a zero politeness delay.
+ */
+public class CrawlLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        SyntheticSite.Spec spec = new SyntheticSite.Spec();
+        int runs = 3;
+        long timeoutSeconds = 600;
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected name=value or --spring.property=value: " + arg);
+            }
+            String name = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "fanout": spec.fanout = Integer.parseInt(value); break;
+                case "depth": spec.depth = Integer.parseInt(value); break;
+                case "hosts": spec.hosts = Integer.parseInt(value); break;
+                case "crossLinks": spec.crossLinks = Integer.parseInt(value); break;
+                case "latencyMedianMs": spec.latencyMedianMs = Long.parseLong(value); break;
+                case "latencySigma": spec.latencySigma = Double.parseDouble(value); break;
+                case "errorRate": spec.errorRate = Double.parseDouble(value); break;
+                case "pageBytes": spec.pageBytes = Integer.parseInt(value); break;
+                case "seed": spec.seed = Long.parseLong(value); break;
+                case "runs": runs = Integer.parseInt(value); break;
+                case "timeoutSeconds": timeoutSeconds = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+
+        Path workDir = Files.createTempDirectory("crawl-harness");
+        List<Map<String, String>> results = new ArrayList<>();
+        try (SyntheticSite site = new SyntheticSite(spec)) {
+            System.out.println("Site: " + spec);
+            for (int run = 1; run <= runs; run++) {
+                results.add(runOnce(site, run, workDir, springArgs, timeoutSeconds));
+                System.out.println(format(run, results.get(results.size() - 1)));
+            }
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static Map<String, String> runOnce(SyntheticSite site, int run, Path workDir,
+                                               List<String> springArgs, long timeoutSeconds) throws Exception {
+        site.startRun(run);
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:crawl-harness-" + run,
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.open-in-view=false",
+            "--crawler.max.pages=" + site.pageCount(),
+            "--crawler.politeness.delay.ms=0",
+            "--crawler.frontier.dir=" + workDir.resolve("frontier-" + run),
+            "--crawler.frontier.resume.on.startup=false",
+            "--crawler.validators.enabled=false",
+            "--crawler.validators.file=" + workDir.resolve("validators-" + run + ".log"),
+            "--otel.exporter.otlp.endpoint=http://127.0.0.1:1",
+            "--logging.level.root=WARN",
+            "--logging.level.com.contactcrawler=ERROR",
+            "--logging.level.io.opentelemetry=OFF",
+            "--logging.file.name=" + workDir.resolve("harness.log"),
+            "--management.metrics.distribution.percentiles.contact.crawler.html.download.time=0.5,0.9,0.99,0.999",
+            "--management.metrics.distribution.expiry.contact.crawler.html.download.time=1h",
+            "--management.metrics.distribution.buffer-length.contact.crawler.html.download.time=1"
+        ));
+        // Later arguments win, so the command line overrides the defaults above
+        args.addAll(springArgs);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ContactCrawlerApplication.class)
+                .run(args.toArray(new String[0]))) {
+            CrawlerService crawlerService = context.getBean(CrawlerService.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            Counter saved = registry.get("contact.database.organizations.saved").counter();
+            Timer fetchTimer = registry.get("contact.crawler.html.download.time").timer();
+
+            System.gc();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long gcCountBefore = gcCount();
+            long gcMillisBefore = gcMillis();
+            long heapPeak = memory.getHeapMemoryUsage().getUsed();
+            double savedBefore = saved.count();
+            double peakWriteRate = 0;
+            double lastSaved = savedBefore;
+            long lastSample = System.nanoTime();
+
+            long start = System.nanoTime();
+            CrawlJob job = crawlerService.startCrawling(Set.of(site.rootUrl()));
+            long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (job.getStatus() == CrawlJob.JobStatus.RUNNING && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+                heapPeak = Math.max(heapPeak, memory.getHeapMemoryUsage().getUsed());
+                long now = System.nanoTime();
+                if (now - lastSample >= TimeUnit.SECONDS.toNanos(1)) {
+                    double current = saved.count();
+                    peakWriteRate = Math.max(peakWriteRate, (current - lastSaved) * 1e9 / (now - lastSample));
+                    lastSaved = current;
+                    lastSample = now;
+                }
+            }
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+            // Let the write-behind queue drain before counting what reached the database
+            Thread.sleep(1000);
+            double orgsSaved = saved.count() - savedBefore;
+
+            Map<String, String> result = new LinkedHashMap<>();
+            result.put("status", job.getStatus().name());
+            result.put("pages", String.valueOf(job.getProcessedPages()));
+            result.put("requests", String.valueOf(site.requests()));
+            result.put("httpErrors", String.valueOf(site.errors()));
+            result.put("duplicateFetches", String.valueOf(site.duplicates()));
+            result.put("wallSeconds", fmt(wallSeconds));
+            result.put("activeSeconds", fmt(site.activeSeconds()));
+            result.put("pagesPerSecond", fmt(site.activeSeconds() > 0 ? site.requests() / site.activeSeconds() : 0));
+            result.put("mbPerSecond", fmt(site.activeSeconds() > 0 ? site.bytesServed() / 1e6 / site.activeSeconds() : 0));
+            for (ValueAtPercentile percentile : fetchTimer.takeSnapshot().percentileValues()) {
+                result.put("fetchP" + percentileLabel(percentile.percentile()) + "Ms",
+                    fmt(percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            result.put("fetchMaxMs", fmt(fetchTimer.max(TimeUnit.MILLISECONDS)));
+            result.put("avgConcurrency", fmt(site.averageConcurrency()));
+            result.put("maxConcurrency", String.valueOf(site.maxInFlight()));
+            result.put("maxBacklog", String.valueOf(site.maxBacklog()));
+            result.put("heapPeakMb", fmt(heapPeak / (1024.0 * 1024.0)));
+            result.put("gcCount", String.valueOf(gcCount() - gcCountBefore));
+            result.put("gcMillis", String.valueOf(gcMillis() - gcMillisBefore));
+            result.put("orgsSaved", String.valueOf((long) orgsSaved));
+            result.put("dbWritesPerSecond", fmt(orgsSaved / wallSeconds));
+            result.put("dbPeakWritesPerSecond", fmt(peakWriteRate));
+            return result;
+        }
+    }
+
+    // 0.999 -> "99_9"
+    private static String percentileLabel(double percentile) {
+        return BigDecimal.valueOf(percentile * 100).stripTrailingZeros().toPlainString().replace('.', '_');
+    }
+
+    private static String format(int run, Map<String, String> result) {
+        StringBuilder line = new StringBuilder("Run ").append(run).append(':');
+        result.forEach((name, value) -> line.append("\n  ").append(String.format("%-22s %s", name, value)));
+        return line.toString();
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.contactcrawler.benchmark;
+
+import com.contactcrawler.config.ThreadPoolConfiguration;
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.service.DataProcessingService;
+import com.contactcrawler.util.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Search, filter and sort strategies of DataProcessingService over synthetic
+ * organizations, using the service's own predicate and comparators.
+ * <ul>
+ *   <li>{@code sequential}, {@code parallel} and {@code forkJoinPool} run the
+ *   whole filter-and-sort on one thread, the common pool (as
+ *   processAndSortOrganizations does) and the dedicated pool
+ *   (processWithForkJoinPool).</li>
+ *   <li>{@code filterLowerCase} and {@code filterIgnoreCase} isolate the filter:
+ *   the service lowercases every field of every record, the alternative
+ *   compares in place with regionMatches. {@code filterTrigramIndex} answers
+ *   the same search from the TrigramIndex behind OrganizationSearchIndex.</li>
+ *   <li>{@code sortServiceComparator} and {@code sortDirectComparator} isolate
+ *   the sort of the matching records: the service's composed nullsLast
+ *   comparator against a plain field comparison.</li>
+ * </ul>
+ * The search terms match roughly 1/8 of the records ("сервис"), a single one
+ * ("example-777."), or are blank, which means sort only. The 1M dataset
+ * needs about 1.5 GB of heap, so the fork gets -Xmx3g.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class DataProcessingBenchmark {
+
+    private static final String[] NAME_PREFIXES = {
+        "Альфа", "Вектор", "Гранит", "Дельта", "Исток", "Квант", "Меридиан", "Орион",
+        "Alpha", "Nord", "Prime", "Vega", "Atlas", "Nova", "Terra", "Helix"
+    };
+
+    private static final String[] NAME_SUFFIXES = {
+        "Сервис", "Строй", "Мед", "Авто", "Консалт", "Маркет", "Групп", "Плюс"
+    };
+
+    private static final String[] CITIES = {
+        "Москва", "Санкт-Петербург", "Новосибирск", "Екатеринбург", "Казань", "Самара"
+    };
+
+    private static final String[] STREETS = {
+        "ул. Ленина", "проспект Мира", "ул. Садовая", "Невский проспект", "ул. Гагарина", "пр. Победы"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"", "сервис", "example-777."})
+    private String search;
+
+    private List<Organization> organizations;
+
+    // Records matching the search term, in generation order: the input of the sort benchmarks
+    private List<Organization> matching;
+
+    private Predicate<Organization> predicate;
+
+    private Comparator<Organization> comparator;
+
+    private ForkJoinPool forkJoinPool;
+
+    private TrigramIndex<Organization> trigramIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        organizations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Organization org = new Organization(
+                NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + "-"
+                    + NAME_SUFFIXES[random.nextInt(NAME_SUFFIXES.length)] + " " + random.nextInt(size),
+                "https://example-" + i + ".ru"
+            );
+            org.setSourceUrl(org.getWebsite() + "/contacts");
+            org.setCrawledAt(base.plusSeconds(random.nextInt(365 * 24 * 3600)));
+            org.getPhones().add("+7495" + (1000000 + random.nextInt(9000000)));
+            if (random.nextInt(3) == 0) {
+                org.getPhones().add("+7800" + (1000000 + random.nextInt(9000000)));
+            }
+            if (random.nextBoolean()) {
+                org.getEmails().add("info@example-" + i + ".ru");
+            }
+            org.getAddresses().add("г. " + CITIES[random.nextInt(CITIES.length)] + ", "
+                + STREETS[random.nextInt(STREETS.length)] + ", д. " + (1 + random.nextInt(200)));
+            organizations.add(org);
+        }
+
+        predicate = DataProcessingService.matchesSearch(search);
+        comparator = DataProcessingService.comparator("name", true);
+        matching = organizations.stream().filter(predicate).collect(Collectors.toList());
+        forkJoinPool = new ThreadPoolConfiguration().dataProcessingForkJoinPool();
+
+        trigramIndex = new TrigramIndex<>();
+        for (Organization org : organizations) {
+            List<String> fields = new ArrayList<>();
+            fields.add(org.getName());
+            fields.add(org.getWebsite());
+            fields.addAll(org.getPhones());
+            fields.addAll(org.getEmails());
+            fields.addAll(org.getAddresses());
+            trigramIndex.add(org, fields);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Benchmark
+    public List<Organization> sequential() {
+        return organizations.stream()
+                .filter(predicate)
+                .sorted(comparator)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Organization> parallel() {
+        return organizations.parallelStream()
+                .filter(predicate)
+                .sorted(comparator)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Organization> forkJoinPool() {
+        return forkJoinPool.submit(() ->
+            organizations.parallelStream()
+                .filter(predicate)
+                .sorted(DataProcessingService.NAME_ORDER)
+                .collect(Collectors.toList())
+        ).join();
+    }
+
+    @Benchmark
+    public long filterLowerCase() {
+        return organizations.stream().filter(predicate).count();
+    }
+
+    @Benchmark
+    public long filterIgnoreCase() {
+        if (search.isEmpty()) {
+            return organizations.size();
+        }
+        return organizations.stream().filter(org ->
+            containsIgnoreCase(org.getName(), search) ||
+            containsIgnoreCase(org.getWebsite(), search) ||
+            org.getPhones().stream().anyMatch(p -> p.contains(search)) ||
+            org.getEmails().stream().anyMatch(e -> containsIgnoreCase(e, search)) ||
+            org.getAddresses().stream().anyMatch(a -> containsIgnoreCase(a, search))
+        ).count();
+    }
+
+    @Benchmark
+    public long filterTrigramIndex() {
+        if (search.isEmpty()) {
+            return organizations.size();
+        }
+        return trigramIndex.search(search).size();
+    }
+
+    @Benchmark
+    public List<Organization> sortServiceComparator() {
+        List<Organization> sorted = new ArrayList<>(matching);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Organization> sortDirectComparator() {
+        List<Organization> sorted = new ArrayList<>(matching);
+        sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return sorted;
+    }
+
+    // The search term is already lower case
+    private static boolean containsIgnoreCase(String value, String lowerSearch) {
+        if (value == null) {
+            return false;
+        }
+        char first = lowerSearch.charAt(0);
+        int last = value.length() - lowerSearch.length();
+        for (int i = 0; i <= last; i++) {
+            if (Character.toLowerCase(value.charAt(i)) == first
+                    && value.regionMatches(true, i, lowerSearch, 0, lowerSearch.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DataProcessingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
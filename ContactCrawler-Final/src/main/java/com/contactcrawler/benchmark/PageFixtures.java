@@ -0,0 +1,23 @@
+package com.contactcrawler.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Checked-in HTML pages under src/benchmark/resources/benchmark (on the classpath with -Pbenchmarks only)
+public class PageFixtures {
+
+    public static final String BASE_URL = "https://fixture.example.ru/";
+
+    public static byte[] load(String name) {
+        String resource = "/benchmark/" + name + ".html";
+        try (InputStream in = PageFixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
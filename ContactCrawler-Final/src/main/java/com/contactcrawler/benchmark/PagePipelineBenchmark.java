@@ -0,0 +1,107 @@
+package com.contactcrawler.benchmark;
+
+import com.contactcrawler.util.ContactParser;
+import com.contactcrawler.util.ContactScanner;
+import com.contactcrawler.util.LinkExtractor;
+import com.contactcrawler.util.PageAnalyzer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage cost of handling one fetched page, over the fixture corpus in
+ * {@link PageFixtures}: Jsoup parsing, text extraction, the contact scan,
+ * ContactParser and LinkExtractor on a parsed document, and the whole
+ * PageAnalyzer pipeline the crawler runs for every page. The stage
+ * benchmarks share one pre-parsed document, so their sum is comparable to
+ * {@link #analyzePage}. Run with {@code -prof gc} (main() adds it) to see
+ * bytes allocated per page next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PagePipelineBenchmark {
+    
+    @Param({"landing", "contact", "directory", "malformed"})
+    private String page;
+    
+    private byte[] body;
+    
+    private String html;
+    
+    private Document document;
+    
+    private String text;
+    
+    @Setup
+    public void setup() {
+        body = PageFixtures.load(page);
+        html = new String(body, StandardCharsets.UTF_8);
+        document = Jsoup.parse(html, PageFixtures.BASE_URL);
+        text = document.text();
+    }
+    
+    @Benchmark
+    public Document parseFromString() {
+        return Jsoup.parse(html, PageFixtures.BASE_URL);
+    }
+    
+    // How the crawler parses: decoding straight from the response bytes with the charset from Content-Type
+    @Benchmark
+    public Document parseFromBytes() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(body), "UTF-8", PageFixtures.BASE_URL);
+    }
+    
+    @Benchmark
+    public String extractText() {
+        return document.text();
+    }
+    
+    @Benchmark
+    public int scanContacts() {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        ContactScanner.scan(text, emails, phones);
+        return emails.size() + phones.size();
+    }
+    
+    // Includes extractText, the mailto:/tel: links, address blocks, title and description
+    @Benchmark
+    public ContactParser.ContactData extractContacts() {
+        return ContactParser.extractContacts(document);
+    }
+    
+    @Benchmark
+    public Set<String> extractLinks() {
+        return LinkExtractor.extractLinks(document);
+    }
+    
+    @Benchmark
+    public PageAnalyzer.PageAnalysis analyzePage() {
+        return PageAnalyzer.analyze(body, "UTF-8", PageFixtures.BASE_URL);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PagePipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(opt).run();
+    }
+}
@@ -1,5 +1,8 @@
 package com.contactcrawler.benchmark;
 
+import com.contactcrawler.util.ContactParser;
+import com.contactcrawler.util.ContactScanner;
+import com.contactcrawler.util.KeywordMatcher;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -7,6 +10,7 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -27,8 +31,20 @@ public class ParsingBenchmark {
         "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}"
     );
     
+    private static final Pattern PHONE_PATTERN = Pattern.compile(
+        "(\\+?[0-9]{1,3}[-\\s]?)?\\(?[0-9]{1,4}\\)?[-\\s]?[0-9]{1,4}[-\\s]?[0-9]{1,9}"
+    );
+    
     private String htmlContent;
     
+    // Page text as ContactParser sees it: prose, emails, phones in several formats, dates and prices
+    private String contactText;
+    
+    // Texts of address/contact blocks, most of which carry no address marker
+    private List<String> addressCandidates;
+    
+    private final KeywordMatcher addressKeywords = new KeywordMatcher(ContactParser.DEFAULT_ADDRESS_KEYWORDS);
+    
     @Setup
     public void setup() {
         // Generate sample HTML content with emails
@@ -40,6 +56,24 @@ public class ParsingBenchmark {
         }
         sb.append("</body></html>");
         htmlContent = sb.toString();
+        
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("ООО Компания ").append(i).append(" - г. Москва, ул. Тверская, д. ").append(i % 120)
+                .append(", офис ").append(i % 40).append(". Телефон: +7 (495) ").append(100 + i % 900)
+                .append("-").append(10 + i % 90).append("-").append(10 + i % 80)
+                .append(", факс 8 800 ").append(200 + i % 700).append(" ").append(1000 + i)
+                .append(". Email: Office").append(i).append("@example-").append(i % 7).append(".ru. ")
+                .append("Работаем с 2004 года, цены от 1 500 руб. Обновлено 12.03.2023. ");
+        }
+        contactText = text.toString();
+        
+        addressCandidates = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            addressCandidates.add(i % 4 == 0
+                ? "Адрес: 123456, г. Москва, Ленинский проспект, д. " + i + ", офис " + (i % 40)
+                : "Напишите нам через форму обратной связи или позвоните в отдел продаж, заявка " + i);
+        }
     }
     
     @Benchmark
@@ -105,6 +139,63 @@ public class ParsingBenchmark {
         return emails;
     }
     
+    // What ContactParser did before the scanner: two regex passes plus replaceAll per phone
+    @Benchmark
+    public int extractContactsUsingRegex() {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        Matcher emailMatcher = EMAIL_PATTERN.matcher(contactText);
+        while (emailMatcher.find()) {
+            String email = emailMatcher.group().toLowerCase().trim();
+            if (email.length() < 50) {
+                emails.add(email);
+            }
+        }
+        Matcher phoneMatcher = PHONE_PATTERN.matcher(contactText);
+        while (phoneMatcher.find()) {
+            String phone = phoneMatcher.group().replaceAll("[^0-9+]", "").trim();
+            if (phone.length() >= 7 && phone.length() <= 20) {
+                phones.add(phone);
+            }
+        }
+        return emails.size() + phones.size();
+    }
+    
+    @Benchmark
+    public int extractContactsUsingScanner() {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        ContactScanner.scan(contactText, emails, phones);
+        return emails.size() + phones.size();
+    }
+    
+    // What ContactParser did before the matcher: a lowercased copy plus one contains() per keyword
+    @Benchmark
+    public int matchAddressKeywordsUsingContains() {
+        int matches = 0;
+        for (String candidate : addressCandidates) {
+            String lower = candidate.toLowerCase();
+            for (String keyword : ContactParser.DEFAULT_ADDRESS_KEYWORDS) {
+                if (lower.contains(keyword)) {
+                    matches++;
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+    
+    @Benchmark
+    public int matchAddressKeywordsUsingAutomaton() {
+        int matches = 0;
+        for (String candidate : addressCandidates) {
+            if (addressKeywords.containsAny(candidate)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+    
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(ParsingBenchmark.class.getSimpleName())
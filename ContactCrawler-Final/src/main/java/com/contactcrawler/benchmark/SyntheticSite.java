@@ -0,0 +1,291 @@
+package com.contactcrawler.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server for a generated web of organization pages. Pages form
+ * a tree with the given fan-out and depth, plus a few cross links per page
+ * back into the graph, and are spread over several loopback hosts
+ * (127.0.0.1, 127.0.0.2, ...) so per-host politeness does not serialize the
+ * whole crawl. Each page's latency (log-normal around the median), size,
+ * error status and contacts are derived from the seed and the page id alone,
+ * so every run serves the same site.
+ */
+public class SyntheticSite implements AutoCloseable {
+
+    public static class Spec {
+        int fanout = 8;
+        int depth = 3;
+        int hosts = 16;
+        int crossLinks = 2;
+        long latencyMedianMs = 20;
+        double latencySigma = 0.6;
+        double errorRate = 0.02;
+        int pageBytes = 16 * 1024;
+        long seed = 1;
+
+        int pageCount() {
+            long pages = 0;
+            long level = 1;
+            for (int d = 0; d <= depth; d++) {
+                pages += level;
+                level *= fanout;
+            }
+            if (pages > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Site too large: " + pages + " pages");
+            }
+            return (int) pages;
+        }
+
+        @Override
+        public String toString() {
+            return "fanout=" + fanout + " depth=" + depth + " pages=" + pageCount() + " hosts=" + hosts
+                + " crossLinks=" + crossLinks + " latencyMedianMs=" + latencyMedianMs
+                + " latencySigma=" + latencySigma + " errorRate=" + errorRate
+                + " pageBytes=" + pageBytes + " seed=" + seed;
+        }
+    }
+
+    private static final String FILLER = "Компания оказывает услуги по всей стране, работает без выходных и отвечает "
+        + "на заявки в течение часа. We deliver on time and keep prices transparent. ";
+
+    private final Spec spec;
+    private final int pageCount;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile int run;
+
+    // Per-run counters, reset by startRun()
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong firstRequestNanos = new AtomicLong();
+    private final AtomicLong lastResponseNanos = new AtomicLong();
+    private BitSet requested = new BitSet();
+    private BitSet discovered = new BitSet();
+    private int maxBacklog;
+
+    public SyntheticSite(Spec spec) throws IOException {
+        this.spec = spec;
+        this.pageCount = spec.pageCount();
+        // Bound to every interface so all of 127.0.0.0/8 reaches it
+        this.server = HttpServer.create(new InetSocketAddress(0), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public int pageCount() {
+        return pageCount;
+    }
+
+    public String rootUrl() {
+        return pageUrl(0);
+    }
+
+    // Later runs serve fresh URLs and contacts, so visited-URL and duplicate-contact state cannot carry over
+    public synchronized void startRun(int run) {
+        this.run = run;
+        inFlight.set(0);
+        maxInFlight.set(0);
+        requests.set(0);
+        errors.set(0);
+        duplicates.set(0);
+        bytesServed.set(0);
+        busyNanos.set(0);
+        firstRequestNanos.set(0);
+        lastResponseNanos.set(0);
+        requested = new BitSet(pageCount);
+        discovered = new BitSet(pageCount);
+        discovered.set(0);
+        maxBacklog = 1;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long duplicates() {
+        return duplicates.get();
+    }
+
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    // Pages the crawler has seen a link to but not requested yet, at its peak
+    public synchronized int maxBacklog() {
+        return maxBacklog;
+    }
+
+    // Time from the first request to the last response of the run
+    public double activeSeconds() {
+        long first = firstRequestNanos.get();
+        return first == 0 ? 0.0 : (lastResponseNanos.get() - first) / 1e9;
+    }
+
+    // Mean number of requests being served at once while the run was active
+    public double averageConcurrency() {
+        double active = activeSeconds();
+        return active > 0 ? busyNanos.get() / 1e9 / active : 0.0;
+    }
+
+    private String pageUrl(int id) {
+        return "http://127.0.0." + (1 + id % spec.hosts) + ":" + server.getAddress().getPort() + "/r" + run + "/p/" + id;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        firstRequestNanos.compareAndSet(0, start);
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            int id = pageId(exchange.getRequestURI().getPath());
+            if (id < 0) {
+                respond(exchange, 404, "text/plain", new byte[0]);
+                return;
+            }
+            requests.incrementAndGet();
+            // SplittableRandom mixes its seed, so neighbouring page ids get independent draws
+            SplittableRandom random = new SplittableRandom(spec.seed * 0x9E3779B97F4A7C15L + id);
+            boolean error = random.nextDouble() < spec.errorRate;
+            List<Integer> links = error ? List.of() : links(id, random);
+            recordRequest(id, links);
+
+            long latencyMs = Math.round(spec.latencyMedianMs * Math.exp(spec.latencySigma * random.nextGaussian()));
+            if (latencyMs > 0) {
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (error) {
+                errors.incrementAndGet();
+                respond(exchange, 500, "text/plain", "Internal Server Error".getBytes(StandardCharsets.UTF_8));
+            } else {
+                int size = (int) (spec.pageBytes * (0.5 + random.nextDouble()));
+                respond(exchange, 200, "text/html; charset=UTF-8", render(id, links, size));
+            }
+        } finally {
+            long end = System.nanoTime();
+            inFlight.decrementAndGet();
+            busyNanos.addAndGet(end - start);
+            lastResponseNanos.accumulateAndGet(end, Math::max);
+            exchange.close();
+        }
+    }
+
+    private int pageId(String path) {
+        String prefix = "/r" + run + "/p/";
+        if (!path.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            int id = Integer.parseInt(path.substring(prefix.length()));
+            return id >= 0 && id < pageCount ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private List<Integer> links(int id, SplittableRandom random) {
+        List<Integer> links = new ArrayList<>(spec.fanout + spec.crossLinks);
+        long firstChild = (long) id * spec.fanout + 1;
+        for (long child = firstChild; child < firstChild + spec.fanout && child < pageCount; child++) {
+            links.add((int) child);
+        }
+        for (int i = 0; i < spec.crossLinks; i++) {
+            links.add(random.nextInt(pageCount));
+        }
+        return links;
+    }
+
+    private synchronized void recordRequest(int id, List<Integer> links) {
+        if (requested.get(id)) {
+            duplicates.incrementAndGet();
+        }
+        requested.set(id);
+        discovered.set(id);
+        for (int link : links) {
+            discovered.set(link);
+        }
+        maxBacklog = Math.max(maxBacklog, discovered.cardinality() - requested.cardinality());
+    }
+
+    private byte[] render(int id, List<Integer> links, int size) {
+        // Unique per run and page, so every page yields a new organization
+        long number = (long) run * 10_000_000L + id;
+        String phone = String.format("+7 (9%02d) %03d-%04d",
+            (number / 10_000_000L) % 100, (number / 10_000) % 1000, number % 10_000);
+
+        StringBuilder html = new StringBuilder(size + 512);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>Компания ").append(run).append('-').append(id)
+            .append(" — синтетический сайт</title><meta name=\"description\" content=\"Страница ").append(id)
+            .append(" синтетического справочника\"></head><body><h1>Компания ").append(id).append("</h1>")
+            .append("<div class=\"contact\">Телефон: ").append(phone)
+            .append(", email: info").append(id).append("@r").append(run).append(".site.example.ru</div>")
+            .append("<address>г. Москва, ул. Тверская, д. ").append(1 + id % 200).append(", офис ").append(id)
+            .append("</address><ul>");
+        for (int link : links) {
+            html.append("<li><a href=\"").append(pageUrl(link)).append("\">Страница ").append(link).append("</a></li>");
+        }
+        html.append("</ul>");
+        while (html.length() < size) {
+            html.append("<p>").append(FILLER).append("</p>");
+        }
+        html.append("</body></html>");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            bytesServed.addAndGet(body.length);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.contactcrawler.client;
+
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker. It opens when the failure rate over the last
+ * {@code windowSize} calls reaches the threshold, or after a run of
+ * consecutive failures, rejects calls while open, and lets a single probe
+ * through once the open period has passed to decide whether to close again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final int consecutiveFailureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          int consecutiveFailureThreshold, long openMillis) {
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.consecutiveFailureThreshold = consecutiveFailureThreshold > 0 ? consecutiveFailureThreshold : Integer.MAX_VALUE;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    // Every granted call must be followed by onSuccess or onFailure
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset(State.CLOSED);
+        }
+        record(false);
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        consecutiveFailures++;
+        if (state == State.CLOSED && (consecutiveFailures >= consecutiveFailureThreshold
+                || (calls >= minimumCalls && failures >= failureRateThreshold * calls))) {
+            open();
+        }
+    }
+
+    // Gives back a granted call that never reached the protected resource
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.nanoTime() - openedAt < openNanos;
+    }
+
+    public synchronized double failureRate() {
+        return calls == 0 ? 0.0 : (double) failures / calls;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        next = 0;
+        calls = 0;
+        failures = 0;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        Arrays.fill(outcomes, false);
+    }
+}
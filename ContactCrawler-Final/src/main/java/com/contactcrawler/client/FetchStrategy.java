@@ -0,0 +1,273 @@
+package com.contactcrawler.client;
+
+import com.contactcrawler.frontier.HostPolitenessScheduler;
+import com.contactcrawler.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses how to fetch a URL. Each host and each fetch client has its own
+ * circuit breaker: URLs on a host whose breaker is open fail immediately, and
+ * clients that are failing are skipped. Healthy clients are tried in order of
+ * their recent failure rate, and a fallback client is only tried while the
+ * host itself still looks reachable. Host breakers that have not been used
+ * for {@code crawler.fetch.breaker.host.idle.ms} are dropped, as are the least
+ * recently used ones beyond {@code crawler.fetch.breaker.hosts.max}.
+ */
+@Service
+public class FetchStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchStrategy.class);
+
+    @Autowired
+    private WebClientService webClientService;
+
+    @Autowired
+    private RestTemplateService restTemplateService;
+
+    @Autowired
+    private FeignHtmlClient feignHtmlClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${feign.htmlFetch.baseUrl:}")
+    private String feignBaseUrl;
+
+    @Value("${crawler.fetch.breaker.window.size:20}")
+    private int windowSize;
+
+    @Value("${crawler.fetch.breaker.minimum.calls:5}")
+    private int minimumCalls;
+
+    @Value("${crawler.fetch.breaker.failure.rate:0.5}")
+    private double failureRate;
+
+    @Value("${crawler.fetch.breaker.host.consecutive.failures:3}")
+    private int hostConsecutiveFailures;
+
+    @Value("${crawler.fetch.breaker.open.ms:30000}")
+    private long openMs;
+
+    @Value("${crawler.fetch.breaker.hosts.max:10000}")
+    private int maxHosts;
+
+    @Value("${crawler.fetch.breaker.host.idle.ms:600000}")
+    private long hostIdleMs;
+
+    private ExpiringLruCache<String, CircuitBreaker> hostBreakers;
+
+    private final List<FetchClient> clients = new ArrayList<>();
+
+    private Counter hostShortCircuits;
+
+    private Counter clientShortCircuits;
+
+    @PostConstruct
+    public void init() {
+        // Never drop a breaker before it could have closed again
+        hostBreakers = new ExpiringLruCache<>(maxHosts, Math.max(hostIdleMs, openMs), TimeUnit.MILLISECONDS,
+                breaker -> 1, true);
+        clients.add(new FetchClient("webclient", (url, validators) -> webClientService.fetchPage(url, validators).block()));
+        clients.add(new FetchClient("resttemplate", restTemplateService::fetchPage));
+        // Without a base URL the Feign client has nowhere to send requests and only ever hits its fallback
+        if (feignBaseUrl != null && !feignBaseUrl.isBlank()) {
+            clients.add(new FetchClient("feign", (url, validators) -> {
+                String content = feignHtmlClient.fetchHtml(url);
+                return content != null ? FetchedPage.ok(content.getBytes(StandardCharsets.UTF_8), "UTF-8", null, null)
+                        : FetchedPage.failed();
+            }));
+        }
+
+        hostShortCircuits = Counter.builder("contact.crawler.fetch.short.circuited")
+                .tag("scope", "host")
+                .description("Fetches skipped because the host circuit breaker was open")
+                .register(meterRegistry);
+        clientShortCircuits = Counter.builder("contact.crawler.fetch.short.circuited")
+                .tag("scope", "client")
+                .description("Fetch clients skipped because their circuit breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("contact.crawler.fetch.open.hosts", hostBreakers, FetchStrategy::countOpen)
+                .description("Hosts whose circuit breaker is currently open")
+                .register(meterRegistry);
+        Gauge.builder("contact.crawler.fetch.tracked.hosts", hostBreakers, ExpiringLruCache::size)
+                .description("Hosts with a circuit breaker in memory")
+                .register(meterRegistry);
+        for (FetchClient client : clients) {
+            Gauge.builder("contact.crawler.fetch.client.failure.rate", client.breaker, CircuitBreaker::failureRate)
+                    .tag("client", client.name)
+                    .description("Failure rate of the fetch client over its recent calls")
+                    .register(meterRegistry);
+        }
+    }
+
+    // Blocking fetch for worker threads. Interrupting the thread cancels the request and throws
+    // CancellationException; a cancelled fetch counts as neither success nor failure for the breakers
+    public FetchedPage fetch(String url, ResponseValidatorCache.Validators validators) {
+        CircuitBreaker hostBreaker = hostBreaker(url);
+        if (!hostBreaker.tryAcquire()) {
+            hostShortCircuits.increment();
+            return FetchedPage.failed();
+        }
+
+        FetchedPage page = FetchedPage.failed();
+        boolean attempted = false;
+        boolean cancelled = false;
+        try {
+            for (FetchClient client : clientsByHealth()) {
+                // Another client only helps if the host answers at least some of the time
+                if (attempted && hostBreaker.failureRate() >= 1.0) {
+                    break;
+                }
+                if (!client.breaker.tryAcquire()) {
+                    clientShortCircuits.increment();
+                    continue;
+                }
+                attempted = true;
+                page = client.fetch(url, validators);
+                if (page.getStatus() != FetchedPage.Status.FAILED) {
+                    break;
+                }
+                logger.debug("Fetch of {} with {} failed", url, client.name);
+            }
+        } catch (CancellationException e) {
+            cancelled = true;
+            throw e;
+        } finally {
+            if (!attempted || cancelled) {
+                hostBreaker.release();
+            } else if (page.isHostFailure()) {
+                hostBreaker.onFailure();
+            } else {
+                hostBreaker.onSuccess();
+            }
+        }
+        return page;
+    }
+
+    // Non-blocking fetch for the reactive engine: WebClient only, behind the host and client breakers
+    public Mono<FetchedPage> fetchAsync(String url, ResponseValidatorCache.Validators validators) {
+        CircuitBreaker hostBreaker = hostBreaker(url);
+        if (!hostBreaker.tryAcquire()) {
+            hostShortCircuits.increment();
+            return Mono.just(FetchedPage.failed());
+        }
+        CircuitBreaker clientBreaker = clients.get(0).breaker;
+        if (!clientBreaker.tryAcquire()) {
+            clientShortCircuits.increment();
+            hostBreaker.release();
+            return Mono.just(FetchedPage.failed());
+        }
+        return webClientService.fetchPage(url, validators)
+                .defaultIfEmpty(FetchedPage.failed())
+                .doOnNext(page -> {
+                    record(clientBreaker, page.getStatus() == FetchedPage.Status.FAILED);
+                    record(hostBreaker, page.isHostFailure());
+                })
+                .doOnCancel(() -> {
+                    clientBreaker.release();
+                    hostBreaker.release();
+                });
+    }
+
+    private CircuitBreaker hostBreaker(String url) {
+        return hostBreakers.computeIfAbsent(HostPolitenessScheduler.hostKey(url),
+                host -> new CircuitBreaker(windowSize, minimumCalls, failureRate, hostConsecutiveFailures, openMs));
+    }
+
+    private static long countOpen(ExpiringLruCache<String, CircuitBreaker> breakers) {
+        long[] open = new long[1];
+        breakers.forEach((host, breaker) -> {
+            if (breaker.isOpen()) {
+                open[0]++;
+            }
+        });
+        return open[0];
+    }
+
+    // Stable sort keeps the configured order between equally healthy clients
+    private List<FetchClient> clientsByHealth() {
+        List<FetchClient> ordered = new ArrayList<>(clients);
+        ordered.sort(Comparator.comparingDouble(client -> client.breaker.failureRate()));
+        return ordered;
+    }
+
+    private static void record(CircuitBreaker breaker, boolean failure) {
+        if (failure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private interface Fetcher {
+        FetchedPage fetch(String url, ResponseValidatorCache.Validators validators);
+    }
+
+    private class FetchClient {
+        private final String name;
+        private final Fetcher fetcher;
+        // Client breakers only trip on whole-client trouble, so a single host's failures cannot open them
+        private final CircuitBreaker breaker = new CircuitBreaker(windowSize * 5, minimumCalls * 4, failureRate, 0, openMs);
+
+        FetchClient(String name, Fetcher fetcher) {
+            this.name = name;
+            this.fetcher = fetcher;
+        }
+
+        FetchedPage fetch(String url, ResponseValidatorCache.Validators validators) {
+            FetchedPage page;
+            try {
+                page = fetcher.fetch(url, validators);
+            } catch (Exception e) {
+                if (isInterruption(e)) {
+                    breaker.release();
+                    throw new CancellationException("Fetch of " + url + " was interrupted");
+                }
+                logger.debug("Fetch client {} threw for {}: {}", name, url, e.getMessage());
+                page = null;
+            }
+            if (page == null) {
+                page = FetchedPage.failed();
+            }
+            // Clients that swallow the interrupt still return a failed page, which is not the client's fault
+            if (page.getStatus() == FetchedPage.Status.FAILED && Thread.currentThread().isInterrupted()) {
+                breaker.release();
+                throw new CancellationException("Fetch of " + url + " was interrupted");
+            }
+            record(breaker, page.getStatus() == FetchedPage.Status.FAILED);
+            return page;
+        }
+    }
+
+    // Mono.block() wraps the InterruptedException; socket timeouts are InterruptedIOExceptions too but are failures
+    private static boolean isInterruption(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,127 @@
+package com.contactcrawler.client;
+
+import com.contactcrawler.util.Fingerprints;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.Charset;
+
+public class FetchedPage {
+
+    public enum Status {
+        OK,
+        NOT_MODIFIED,
+        // Not HTML or over the size limit; fetching it again with another client would not help
+        REJECTED,
+        // The server answered with an error status
+        HTTP_ERROR,
+        // No usable answer: connect failure, timeout, empty body
+        FAILED
+    }
+
+    private static final byte[] NO_BODY = new byte[0];
+    private static final FetchedPage NOT_MODIFIED = new FetchedPage(Status.NOT_MODIFIED, NO_BODY, null, null, null, 304);
+    private static final FetchedPage REJECTED = new FetchedPage(Status.REJECTED, NO_BODY, null, null, null, 0);
+    private static final FetchedPage FAILED = new FetchedPage(Status.FAILED, NO_BODY, null, null, null, 0);
+
+    private final Status status;
+    private final byte[] body;
+    private final String charset;
+    private final String etag;
+    private final String lastModified;
+    private final int statusCode;
+
+    private FetchedPage(Status status, byte[] body, String charset, String etag, String lastModified, int statusCode) {
+        this.status = status;
+        this.body = body;
+        this.charset = charset;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.statusCode = statusCode;
+    }
+
+    // charset comes from the Content-Type header; null leaves detection to the parser
+    public static FetchedPage ok(byte[] body, String charset, String etag, String lastModified) {
+        return body == null || body.length == 0 ? FAILED
+                : new FetchedPage(Status.OK, body, supportedOrNull(charset), etag, lastModified, 200);
+    }
+
+    public static FetchedPage notModified() {
+        return NOT_MODIFIED;
+    }
+
+    public static FetchedPage rejected() {
+        return REJECTED;
+    }
+
+    public static FetchedPage httpError(int statusCode) {
+        return new FetchedPage(Status.HTTP_ERROR, NO_BODY, null, null, null, statusCode);
+    }
+
+    public static FetchedPage failed() {
+        return FAILED;
+    }
+
+    // A missing Content-Type is let through; the parser copes with whatever arrives
+    public static boolean isHtml(MediaType contentType) {
+        return contentType == null
+                || MediaType.TEXT_HTML.isCompatibleWith(contentType)
+                || MediaType.APPLICATION_XHTML_XML.isCompatibleWith(contentType);
+    }
+
+    public static String charsetOf(MediaType contentType) {
+        return contentType != null ? contentType.getParameter("charset") : null;
+    }
+
+    private static String supportedOrNull(String charset) {
+        if (charset == null) {
+            return null;
+        }
+        String name = charset.trim().replace("\"", "");
+        try {
+            return Charset.isSupported(name) ? name : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    public boolean isNotModified() {
+        return status == Status.NOT_MODIFIED;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // Server-side trouble counts against the host; 4xx answers mean the host is up
+    public boolean isHostFailure() {
+        return status == Status.FAILED || (status == Status.HTTP_ERROR && statusCode >= 500);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long contentHash() {
+        return Fingerprints.of(body);
+    }
+}
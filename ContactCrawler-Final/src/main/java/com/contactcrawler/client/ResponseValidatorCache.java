@@ -0,0 +1,307 @@
+package com.contactcrawler.client;
+
+import com.contactcrawler.util.ExpiringLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-URL HTTP validators ({@code ETag}, {@code Last-Modified}) and content
+ * hashes from earlier crawls, kept in memory and in an append-only log on
+ * disk. Fetch clients send them back as conditional headers; a 304 answer or
+ * an unchanged body lets the crawler skip parsing and persistence and reuse
+ * the links recorded for the page.
+ * <p>
+ * Memory is bounded: entries weigh one plus the number of recorded links,
+ * and the least recently used ones are dropped once the total exceeds
+ * {@code crawler.validators.max.weight} or after
+ * {@code crawler.validators.ttl.days}. A dropped URL is simply fetched and
+ * parsed in full next time. Each log line carries the time it was recorded,
+ * so startup skips expired entries and loads the rest with their remaining
+ * lifetime. Later lines supersede earlier ones for the same URL; once the log
+ * holds more than twice as many lines as live entries, it is rewritten with
+ * only the live ones, at startup or while crawling.
+ */
+@Component
+public class ResponseValidatorCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseValidatorCache.class);
+
+    @Value("${crawler.validators.enabled:true}")
+    private boolean enabled;
+
+    @Value("${crawler.validators.file:./data/validators.log}")
+    private String validatorsFile;
+
+    @Value("${crawler.validators.max.weight:1000000}")
+    private long maxWeight;
+
+    @Value("${crawler.validators.ttl.days:30}")
+    private long ttlDays;
+
+    private ExpiringLruCache<String, Validators> entries;
+
+    private Path file;
+
+    private volatile BufferedWriter writer;
+
+    // Lines in the log, guarded by this
+    private int logLines;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        this.entries = new ExpiringLruCache<>(maxWeight, ttlDays, TimeUnit.DAYS,
+                validators -> 1 + validators.links.size());
+        this.file = Paths.get(validatorsFile);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.logLines = Files.exists(file) ? load() : 0;
+            if (isMostlyStale()) {
+                this.logLines = compact();
+            }
+            this.writer = openWriter();
+            logger.info("Loaded HTTP validators for {} URLs ({} entries and links) from {}",
+                    entries.size(), entries.weight(), file);
+        } catch (IOException e) {
+            logger.warn("HTTP validator cache disabled, cannot open {}: {}", file, e.getMessage());
+            this.writer = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close HTTP validator cache: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    public Validators get(String url) {
+        return writer != null ? entries.get(url) : null;
+    }
+
+    // A 304, or a 200 whose body hashes the same as last time, means the page has not changed
+    public boolean isUnchanged(Validators cached, FetchedPage page) {
+        return page.isNotModified() || (cached != null && page.isOk() && page.contentHash() == cached.contentHash);
+    }
+
+    public void record(String url, FetchedPage page, Collection<String> links) {
+        record(url, validatorsOf(page, links));
+    }
+
+    // What record() would store for the page, without keeping the body; null if there is nothing to store
+    public Validators validatorsOf(FetchedPage page, Collection<String> links) {
+        if (writer == null || !page.isOk()) {
+            return null;
+        }
+        List<String> storedLinks = new ArrayList<>(links.size());
+        for (String link : links) {
+            if (!hasWhitespace(link)) {
+                storedLinks.add(link);
+            }
+        }
+        return new Validators(sanitize(page.getEtag()), sanitize(page.getLastModified()),
+                page.contentHash(), storedLinks, System.currentTimeMillis());
+    }
+
+    public void record(String url, Validators validators) {
+        if (writer == null || validators == null || hasSeparator(url)) {
+            return;
+        }
+        entries.put(url, validators);
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(toLine(url, validators));
+                writer.newLine();
+                writer.flush();
+                logLines++;
+            } catch (IOException e) {
+                logger.warn("Failed to store HTTP validators for {}: {}", url, e.getMessage());
+                return;
+            }
+            if (isMostlyStale()) {
+                compactWhileRunning();
+            }
+        }
+    }
+
+    public int size() {
+        return entries != null ? entries.size() : 0;
+    }
+
+    private int load() throws IOException {
+        int lines = 0;
+        long now = System.currentTimeMillis();
+        long ttlMillis = TimeUnit.DAYS.toMillis(ttlDays);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    // Torn last line after a crash, or a line from before records carried their time
+                    continue;
+                }
+                try {
+                    long recordedAt = Long.parseLong(fields[1]);
+                    if (now - recordedAt >= ttlMillis) {
+                        continue;
+                    }
+                    List<String> links = fields[5].isEmpty() ? List.of() : Arrays.asList(fields[5].split(" "));
+                    entries.put(fields[0], new Validators(emptyToNull(fields[2]), emptyToNull(fields[3]),
+                            Long.parseUnsignedLong(fields[4], 16), links, recordedAt),
+                            now - recordedAt, TimeUnit.MILLISECONDS);
+                } catch (NumberFormatException e) {
+                    // Skip the damaged record
+                }
+            }
+        }
+        return lines;
+    }
+
+    private boolean isMostlyStale() {
+        return logLines > 2 * entries.size() + 1000;
+    }
+
+    // Called with this locked, so no record is appended between the rewrite and reopening the log
+    private void compactWhileRunning() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close HTTP validator log {} for compaction: {}", file, e.getMessage());
+        }
+        try {
+            int before = logLines;
+            logLines = compact();
+            logger.info("Compacted HTTP validator log {} from {} to {} lines", file, before, logLines);
+        } catch (IOException e) {
+            logger.warn("Failed to compact HTTP validator log {}: {}", file, e.getMessage());
+        }
+        try {
+            writer = openWriter();
+        } catch (IOException e) {
+            logger.warn("HTTP validator cache disabled, cannot reopen {}: {}", file, e.getMessage());
+            writer = null;
+        }
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Returns the number of lines written
+    private int compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int[] lines = new int[1];
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            // Least recently used first, so loading the file again keeps the same entries
+            entries.forEach((url, validators) -> {
+                try {
+                    out.write(toLine(url, validators));
+                    out.newLine();
+                    lines[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return lines[0];
+    }
+
+    private static String toLine(String url, Validators validators) {
+        return url + '\t'
+                + validators.recordedAt + '\t'
+                + (validators.etag != null ? validators.etag : "") + '\t'
+                + (validators.lastModified != null ? validators.lastModified : "") + '\t'
+                + Long.toHexString(validators.contentHash) + '\t'
+                + String.join(" ", validators.links);
+    }
+
+    private static String sanitize(String headerValue) {
+        return headerValue == null || hasSeparator(headerValue) ? null : headerValue;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    // Tabs and line breaks delimit the log records
+    private static boolean hasSeparator(String value) {
+        return value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0 || value.indexOf('\t') >= 0;
+    }
+
+    private static boolean hasWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Validators {
+        private final String etag;
+        private final String lastModified;
+        private final long contentHash;
+        private final List<String> links;
+        // Epoch millis; the TTL counts from here across restarts
+        private final long recordedAt;
+
+        Validators(String etag, String lastModified, long contentHash, List<String> links, long recordedAt) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.links = links;
+            this.recordedAt = recordedAt;
+        }
+
+        public void addConditionalHeaders(HttpHeaders headers) {
+            if (etag != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        public List<String> getLinks() {
+            return links;
+        }
+    }
+}
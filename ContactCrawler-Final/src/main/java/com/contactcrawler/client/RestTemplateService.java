@@ -1,14 +1,22 @@
 package com.contactcrawler.client;
 
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -21,33 +29,76 @@ public class RestTemplateService {
     
     @Value("${crawler.user.agent:Mozilla/5.0}")
     private String userAgent;
+    
+    @Value("${crawler.fetch.max.body.bytes:5242880}")
+    private int maxBodyBytes;
+
+    @Autowired
+    private OkHttpClient crawlerOkHttpClient;
 
     @javax.annotation.PostConstruct
     public void init() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        // Pooled keep-alive connections instead of a new HttpURLConnection per request
+        OkHttp3ClientHttpRequestFactory factory = new OkHttp3ClientHttpRequestFactory(crawlerOkHttpClient);
         factory.setConnectTimeout(timeoutMs);
         factory.setReadTimeout(timeoutMs);
         
         this.restTemplate = new RestTemplate(factory);
     }
 
-    public String fetchHtml(String url) {
+    // Streams the body up to crawler.fetch.max.body.bytes; non-HTML responses are rejected unread
+    public FetchedPage fetchPage(String url, ResponseValidatorCache.Validators validators) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", userAgent);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
+            FetchedPage page = restTemplate.execute(
                     url,
                     HttpMethod.GET,
-                    entity,
-                    String.class
+                    request -> {
+                        request.getHeaders().set("User-Agent", userAgent);
+                        if (validators != null) {
+                            validators.addConditionalHeaders(request.getHeaders());
+                        }
+                    },
+                    this::readPage
             );
-            
-            return response.getBody() != null ? response.getBody() : "";
+            return page != null ? page : FetchedPage.failed();
+        } catch (HttpStatusCodeException e) {
+            return FetchedPage.httpError(e.getRawStatusCode());
         } catch (Exception e) {
             System.err.println("Error fetching URL with RestTemplate: " + url + " - " + e.getMessage());
-            return "";
+            return FetchedPage.failed();
+        }
+    }
+
+    private FetchedPage readPage(ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return FetchedPage.notModified();
+        }
+        HttpHeaders headers = response.getHeaders();
+        MediaType contentType;
+        try {
+            contentType = headers.getContentType();
+        } catch (InvalidMediaTypeException e) {
+            contentType = null;
+        }
+        if (!FetchedPage.isHtml(contentType) || headers.getContentLength() > maxBodyBytes) {
+            // Closing the unread body drops the connection instead of draining the rest of the response
+            response.getBody().close();
+            return FetchedPage.rejected();
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(
+                (int) Math.min(maxBodyBytes, Math.max(headers.getContentLength(), 8192)));
+        byte[] chunk = new byte[8192];
+        try (InputStream in = response.getBody()) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (body.size() + read > maxBodyBytes) {
+                    return FetchedPage.rejected();
+                }
+                body.write(chunk, 0, read);
+            }
         }
+        return FetchedPage.ok(body.toByteArray(), FetchedPage.charsetOf(contentType), headers.getETag(),
+                headers.getFirst(HttpHeaders.LAST_MODIFIED));
     }
 }
@@ -1,11 +1,20 @@
 package com.contactcrawler.client;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.netty.http.client.HttpClient;
 
 import javax.annotation.PostConstruct;
 import java.time.Duration;
@@ -15,27 +24,76 @@ public class WebClientService {
     
     private WebClient webClient;
     
+    @Autowired
+    private HttpClient crawlerHttpClient;
+    
     @Value("${crawler.timeout.ms:10000}")
     private int timeoutMs;
     
     @Value("${crawler.user.agent:Mozilla/5.0}")
     private String userAgent;
+    
+    @Value("${crawler.fetch.max.body.bytes:5242880}")
+    private int maxBodyBytes;
 
     @PostConstruct
     public void init() {
         this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(crawlerHttpClient))
                 .defaultHeader(HttpHeaders.USER_AGENT, userAgent)
+                .defaultHeader(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml;q=0.9,*/*;q=0.1")
                 .build();
     }
 
-    public Mono<String> fetchHtml(String url) {
+    // Conditional GET: sends the cached validators and reports a 304 as NOT_MODIFIED.
+    // The body is streamed as DataBuffers and joined only up to crawler.fetch.max.body.bytes.
+    public Mono<FetchedPage> fetchPage(String url, ResponseValidatorCache.Validators validators) {
         return webClient.get()
                 .uri(url)
-                .retrieve()
-                .bodyToMono(String.class)
+                .headers(headers -> {
+                    if (validators != null) {
+                        validators.addConditionalHeaders(headers);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody().thenReturn(FetchedPage.notModified());
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return discardBody(response).thenReturn(FetchedPage.httpError(response.rawStatusCode()));
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    MediaType contentType;
+                    try {
+                        contentType = headers.getContentType();
+                    } catch (InvalidMediaTypeException e) {
+                        contentType = null;
+                    }
+                    // Reject before reading a byte of the body
+                    if (!FetchedPage.isHtml(contentType) || headers.getContentLength() > maxBodyBytes) {
+                        return discardBody(response).thenReturn(FetchedPage.rejected());
+                    }
+                    String charset = FetchedPage.charsetOf(contentType);
+                    return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), maxBodyBytes)
+                            .map(buffer -> {
+                                byte[] body = new byte[buffer.readableByteCount()];
+                                buffer.read(body);
+                                DataBufferUtils.release(buffer);
+                                return FetchedPage.ok(body, charset, headers.getETag(),
+                                        headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                            })
+                            .defaultIfEmpty(FetchedPage.failed())
+                            .onErrorReturn(DataBufferLimitException.class, FetchedPage.rejected());
+                })
+                // No retries here: FetchStrategy's circuit breakers decide whether a host is worth another try
                 .timeout(Duration.ofMillis(timeoutMs))
-                .retryWhen(Retry.backoff(2, Duration.ofSeconds(1))
-                        .filter(throwable -> throwable instanceof java.util.concurrent.TimeoutException))
-                .onErrorReturn("");
+                .onErrorReturn(FetchedPage.failed());
+    }
+
+    // Subscribing and cancelling at once closes the connection instead of draining a large body
+    private static Mono<Void> discardBody(ClientResponse response) {
+        return response.bodyToFlux(DataBuffer.class)
+                .take(0)
+                .then();
     }
 }
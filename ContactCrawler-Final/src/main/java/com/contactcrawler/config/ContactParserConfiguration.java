@@ -0,0 +1,37 @@
+package com.contactcrawler.config;
+
+import com.contactcrawler.util.ContactParser;
+import com.contactcrawler.util.KeywordMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+public class ContactParserConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactParserConfiguration.class);
+
+    // Comma-separated; empty keeps ContactParser.DEFAULT_ADDRESS_KEYWORDS
+    @Value("${crawler.address.keywords:}")
+    private String addressKeywords;
+
+    // Handed to PageAnalyzer by both crawl engines
+    @Bean
+    public KeywordMatcher addressKeywordMatcher() {
+        List<String> keywords = Arrays.stream(addressKeywords.split(","))
+                .map(String::trim)
+                .filter(keyword -> !keyword.isEmpty())
+                .collect(Collectors.toList());
+        if (keywords.isEmpty()) {
+            return new KeywordMatcher(ContactParser.DEFAULT_ADDRESS_KEYWORDS);
+        }
+        logger.info("Address detection uses {} configured keywords", keywords.size());
+        return new KeywordMatcher(keywords);
+    }
+}
@@ -0,0 +1,92 @@
+package com.contactcrawler.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.netty.channel.ChannelOption;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP connection pools for the fetch clients. Connections are kept
+ * per remote host, so pages crawled from one site reuse warm TCP/TLS
+ * connections; idle ones are evicted in the background.
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    @Value("${crawler.timeout.ms:10000}")
+    private int timeoutMs;
+
+    @Value("${crawler.http.pool.max.connections.per.host:16}")
+    private int maxConnectionsPerHost;
+
+    @Value("${crawler.http.pool.max.pending.acquires:1000}")
+    private int maxPendingAcquires;
+
+    @Value("${crawler.http.pool.max.idle.ms:30000}")
+    private long maxIdleMs;
+
+    @Value("${crawler.http.pool.max.life.ms:300000}")
+    private long maxLifeMs;
+
+    @Value("${crawler.http.pool.max.idle.connections:256}")
+    private int maxIdleConnections;
+
+    @Value("${crawler.http.http2.enabled:true}")
+    private boolean http2Enabled;
+
+    // Reactor Netty keeps one pool per remote address; metrics(true) publishes
+    // reactor.netty.connection.provider.* gauges to the global Micrometer registry
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider crawlerConnectionProvider() {
+        return ConnectionProvider.builder("crawler")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(Duration.ofMillis(timeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(Math.max(1000, maxIdleMs / 2)))
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    // compress(true) sends Accept-Encoding and inflates gzip/deflate bodies before the size limit is applied
+    @Bean
+    public HttpClient crawlerHttpClient(ConnectionProvider crawlerConnectionProvider) {
+        HttpClient client = HttpClient.create(crawlerConnectionProvider)
+                .compress(true)
+                .keepAlive(true)
+                .followRedirect(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutMs)
+                .responseTimeout(Duration.ofMillis(timeoutMs));
+        // HTTP/2 is negotiated through ALPN on TLS connections; plain http stays on HTTP/1.1
+        return http2Enabled ? client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : client;
+    }
+
+    // Connection pool for the RestTemplate fallback; OkHttp handles gzip and HTTP/2 transparently
+    @Bean
+    public OkHttpClient crawlerOkHttpClient(MeterRegistry meterRegistry) {
+        ConnectionPool pool = new ConnectionPool(maxIdleConnections, maxIdleMs, TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(pool, "crawler.okhttp.pool", Tags.empty(), maxIdleConnections)
+                .bindTo(meterRegistry);
+        return new OkHttpClient.Builder()
+                .connectionPool(pool)
+                .protocols(http2Enabled ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+}
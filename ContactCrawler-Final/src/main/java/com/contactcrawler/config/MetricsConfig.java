@@ -12,7 +12,7 @@ public class MetricsConfig {
     @Bean
     public Timer parsingTimer(MeterRegistry registry) {
         return Timer.builder("contact.parser.execution.time")
-                .description("Time taken to parse HTML content and extract contacts")
+                .description("Time taken to parse HTML content once and extract contacts and links")
                 .register(registry);
     }
     
@@ -51,10 +51,17 @@ public class MetricsConfig {
                 .register(registry);
     }
     
+    @Bean
+    public Counter pagesUnchangedCounter(MeterRegistry registry) {
+        return Counter.builder("contact.crawler.pages.unchanged")
+                .description("Pages skipped because they were not modified since the last crawl")
+                .register(registry);
+    }
+    
     @Bean
     public Timer databaseSaveTimer(MeterRegistry registry) {
         return Timer.builder("contact.database.save.operation.time")
-                .description("Time taken to save organization data to database")
+                .description("Time taken to write one batch of organizations to the database")
                 .register(registry);
     }
     
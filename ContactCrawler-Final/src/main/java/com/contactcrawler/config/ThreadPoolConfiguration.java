@@ -16,8 +16,18 @@ public class ThreadPoolConfiguration {
     @Value("${crawler.thread.pool.size:10}")
     private int threadPoolSize;
 
+    @Value("${crawler.executor.mode:platform}")
+    private String executorMode;
+
     @Bean(name = "crawlerExecutorService")
     public ExecutorService crawlerExecutorService() {
+        if ("virtual".equalsIgnoreCase(executorMode)) {
+            // One virtual thread per task; concurrency is bounded by CrawlerService permits
+            return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("crawler-vthread-", 1).factory()
+            );
+        }
+        
         ThreadFactory threadFactory = new ThreadFactory() {
             private final AtomicInteger threadNumber = new AtomicInteger(1);
             
@@ -1,8 +1,12 @@
 package com.contactcrawler.controller;
 
 import com.contactcrawler.model.CrawlJob;
+import com.contactcrawler.model.CrawlJobHistory;
+import com.contactcrawler.service.CrawlJobRegistry;
 import com.contactcrawler.service.CrawlerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +18,14 @@ import java.util.Set;
 @RequestMapping("/api/crawler")
 public class CrawlerController {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     @Autowired
     private CrawlerService crawlerService;
 
+    @Autowired
+    private CrawlJobRegistry jobRegistry;
+
     @PostMapping("/start")
     public ResponseEntity<Map<String, Object>> startCrawling(@RequestBody Set<String> urls) {
         CrawlJob job = crawlerService.startCrawling(urls);
@@ -29,6 +38,34 @@ public class CrawlerController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelCrawling(@PathVariable String jobId) {
+        return control(jobId, crawlerService.cancelCrawling(jobId), "Crawling cancelled", "Job cannot be cancelled");
+    }
+
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<Map<String, Object>> pauseCrawling(@PathVariable String jobId) {
+        return control(jobId, crawlerService.pauseCrawling(jobId), "Crawling paused", "Job cannot be paused");
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeCrawling(@PathVariable String jobId) {
+        return control(jobId, crawlerService.resumeCrawling(jobId), "Crawling resumed", "Job cannot be resumed");
+    }
+
+    // 404 for an unknown job, 409 when the job's state does not allow the change
+    private ResponseEntity<Map<String, Object>> control(String jobId, boolean changed, String done, String refused) {
+        CrawlJob job = crawlerService.getJobStatus(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getJobId());
+        response.put("status", job.getStatus());
+        response.put("message", changed ? done : refused);
+        return changed ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @GetMapping("/status/{jobId}")
     public ResponseEntity<CrawlJob> getJobStatus(@PathVariable String jobId) {
         CrawlJob job = crawlerService.getJobStatus(jobId);
@@ -38,16 +75,37 @@ public class CrawlerController {
         return ResponseEntity.ok(job);
     }
 
+    // Running and paused jobs; finished ones are listed by /history
     @GetMapping("/active-jobs")
     public ResponseEntity<Map<String, CrawlJob>> getActiveJobs() {
         return ResponseEntity.ok(crawlerService.getActiveJobs());
     }
 
+    // Finished jobs, most recently finished first
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getHistory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        int pageSize = Math.min(Math.max(1, size), MAX_HISTORY_PAGE_SIZE);
+        Page<CrawlJobHistory> history = jobRegistry.getHistory(Math.max(0, page), pageSize);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", history.getContent());
+        response.put("currentPage", history.getNumber());
+        response.put("pageSize", pageSize);
+        response.put("totalElements", history.getTotalElements());
+        response.put("totalPages", history.getTotalPages());
+        response.put("hasNext", history.hasNext());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("activeJobs", crawlerService.getActiveJobs().size());
-        stats.put("totalJobs", crawlerService.getActiveJobs().values().size());
+        int activeJobs = crawlerService.getActiveJobs().size();
+        stats.put("activeJobs", activeJobs);
+        stats.put("totalJobs", activeJobs + jobRegistry.getHistoryCount());
         return ResponseEntity.ok(stats);
     }
 }
@@ -2,14 +2,17 @@ package com.contactcrawler.controller;
 
 import com.contactcrawler.model.Organization;
 import com.contactcrawler.repository.OrganizationRepository;
+import com.contactcrawler.repository.PageCursor;
+import com.contactcrawler.service.DataExportService;
 import com.contactcrawler.service.DataProcessingService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +25,9 @@ public class DataController {
     @Autowired
     private DataProcessingService dataProcessingService;
     
+    @Autowired
+    private DataExportService dataExportService;
+    
     @Autowired
     private OrganizationRepository organizationRepository;
 
@@ -31,41 +37,10 @@ public class DataController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "true") boolean ascending) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Organization> organizations;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            organizations = dataProcessingService.searchOrganizations(search, pageable);
-        } else {
-            organizations = organizationRepository.findAll(pageable);
-        }
-        
-        // Apply sorting using parallelStream
-        List<Organization> sortedList = dataProcessingService.processAndSortOrganizations(
-            search, sortBy, ascending
-        );
-        
-        // Apply pagination manually
-        int start = page * size;
-        int end = Math.min(start + size, sortedList.size());
-        List<Organization> paginatedList = sortedList.subList(
-            Math.min(start, sortedList.size()), 
-            end
-        );
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", paginatedList);
-        response.put("totalElements", sortedList.size());
-        response.put("totalPages", (int) Math.ceil((double) sortedList.size() / size));
-        response.put("currentPage", page);
-        response.put("pageSize", size);
-        response.put("search", search);
-        response.put("sortBy", sortBy);
-        response.put("ascending", ascending);
+            @RequestParam(defaultValue = "true") boolean ascending,
+            @RequestParam(required = false) String cursor) {
         
-        return ResponseEntity.ok(response);
+        return listOrganizations(search, sortBy, ascending, page, size, cursor);
     }
 
     @GetMapping("/companies")
@@ -74,27 +49,30 @@ public class DataController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "true") boolean ascending,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
-        List<Organization> organizations = dataProcessingService.processAndSortOrganizations(
-            search, sortBy, ascending
-        );
-        
-        int start = page * size;
-        int end = Math.min(start + size, organizations.size());
-        List<Organization> paginatedList = organizations.subList(
-            Math.min(start, organizations.size()), 
-            end
-        );
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", paginatedList);
-        response.put("totalElements", organizations.size());
-        response.put("totalPages", (int) Math.ceil((double) organizations.size() / size));
-        response.put("currentPage", page);
-        response.put("pageSize", size);
+        return listOrganizations(search, sortBy, ascending, page, size, cursor);
+    }
+
+    // Whole dataset (or the matches of search) in id order, streamed as it is read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String search) {
         
-        return ResponseEntity.ok(response);
+        DataExportService.Format exportFormat = DataExportService.Format.parse(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        MediaType contentType = exportFormat == DataExportService.Format.CSV
+            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+            : MediaType.APPLICATION_NDJSON;
+        String fileName = "organizations." + exportFormat.name().toLowerCase();
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(out -> dataExportService.export(search, exportFormat, out));
     }
 
     @GetMapping("/companies/phone/{phone}")
@@ -110,4 +88,58 @@ public class DataController {
         return org.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
+
+    // Sorted and paginated in the database. With a cursor (nextCursor of the previous page) the query seeks
+    // past the last row seen and the sort is the cursor's; page only applies to the first request, as an offset
+    private ResponseEntity<Map<String, Object>> listOrganizations(String search, String sortBy, boolean ascending,
+                                                                  int page, int size, String cursor) {
+        PageCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        PageCursor.SortField sortField = after != null ? after.getSortField() : PageCursor.SortField.parse(sortBy);
+        boolean sortAscending = after != null ? after.isAscending() : ascending;
+        int pageSize = Math.max(1, size);
+        int pageNumber = Math.max(0, page);
+        // page * size must still fit an int offset
+        int offset;
+        int limit;
+        try {
+            offset = Math.multiplyExact(pageNumber, pageSize);
+            limit = Math.addExact(pageSize, 1);
+        } catch (ArithmeticException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // One extra row tells whether there is a next page without counting
+        List<Organization> rows = dataProcessingService.findPage(
+            search, sortField, sortAscending, after, offset, limit
+        );
+        boolean hasNext = rows.size() > pageSize;
+        List<Organization> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", content);
+        response.put("pageSize", pageSize);
+        response.put("search", search);
+        response.put("sortBy", sortField.getProperty());
+        response.put("ascending", sortAscending);
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext
+            ? PageCursor.after(content.get(content.size() - 1), sortField, sortAscending).encode()
+            : null);
+        // Totals can cost a full count, so they are only returned with the first request of a listing
+        if (after == null) {
+            long totalElements = dataProcessingService.countMatching(search);
+            response.put("totalElements", totalElements);
+            response.put("totalPages", (int) Math.ceil((double) totalElements / pageSize));
+            response.put("currentPage", pageNumber);
+        }
+        
+        return ResponseEntity.ok(response);
+    }
 }
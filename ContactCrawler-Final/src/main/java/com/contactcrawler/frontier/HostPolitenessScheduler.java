@@ -0,0 +1,256 @@
+package com.contactcrawler.frontier;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-host URL queues with an individual politeness delay for every host.
+ * A host is handed to at most one worker at a time and becomes ready again
+ * only after its delay has passed, so workers always receive a URL whose
+ * host may be contacted right now.
+ */
+public class HostPolitenessScheduler {
+
+    private final long defaultDelayMs;
+    private final Map<String, Long> hostDelays;
+    private final ConcurrentHashMap<String, HostQueue> hosts = new ConcurrentHashMap<>();
+    private final DelayQueue<HostQueue> readyHosts = new DelayQueue<>();
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final HostQueue shutdownMarker = new HostQueue("", 0);
+    private volatile boolean shutdown;
+
+    public HostPolitenessScheduler(long defaultDelayMs) {
+        this(defaultDelayMs, Collections.emptyMap());
+    }
+
+    public HostPolitenessScheduler(long defaultDelayMs, Map<String, Long> hostDelays) {
+        this.defaultDelayMs = defaultDelayMs;
+        this.hostDelays = hostDelays;
+    }
+
+    public void offer(String url) {
+        String host = hostKey(url);
+        HostQueue queue = hosts.computeIfAbsent(host, h -> new HostQueue(h, delayFor(h)));
+        synchronized (queue) {
+            queue.urls.add(url);
+            size.incrementAndGet();
+            scheduleIfIdle(queue);
+        }
+    }
+
+    /**
+     * Blocks until a URL whose host is ready is available, or returns null
+     * once the scheduler is shut down. The caller must hand the URL back
+     * through {@link #release(String, boolean)} once it is done with it,
+     * otherwise its host is never scheduled again.
+     */
+    public String take() throws InterruptedException {
+        while (!shutdown) {
+            HostQueue queue = readyHosts.take();
+            if (queue == shutdownMarker) {
+                // Leave it for the next taker, so every blocked thread wakes up
+                readyHosts.put(queue);
+                return null;
+            }
+            synchronized (queue) {
+                queue.scheduled = false;
+                String url = queue.urls.poll();
+                if (url != null) {
+                    queue.busy = true;
+                    size.decrementAndGet();
+                    return url;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Makes every current and future take() return null; queued URLs stay where they are
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        // Ready at once and ahead of every host
+        shutdownMarker.readyAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+        readyHosts.put(shutdownMarker);
+    }
+
+    /**
+     * Returns the host of a taken URL to the scheduler. When the host was
+     * actually contacted its next URL becomes ready only after the host delay.
+     */
+    public void release(String url, boolean contacted) {
+        HostQueue queue = hosts.get(hostKey(url));
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.busy = false;
+            if (contacted) {
+                queue.readyAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queue.delayMs);
+            }
+            scheduleIfIdle(queue);
+        }
+    }
+
+    /**
+     * Books the next request slot for the URL's host without blocking and
+     * returns how long the caller has to wait before using it. Used by
+     * non-blocking callers that schedule the wait themselves.
+     */
+    public long reserve(String url) {
+        String host = hostKey(url);
+        HostQueue queue = hosts.computeIfAbsent(host, h -> new HostQueue(h, delayFor(h)));
+        synchronized (queue) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, queue.nextSlot);
+            queue.nextSlot = slot + TimeUnit.MILLISECONDS.toNanos(queue.delayMs);
+            return TimeUnit.NANOSECONDS.toMillis(slot - now);
+        }
+    }
+
+    /**
+     * Claims the URL's host for a request right now if its delay since the
+     * last claimed request has passed, and returns 0. Otherwise returns how
+     * many milliseconds are left, without claiming anything. For non-blocking
+     * callers that must not hold a worker while a host is waiting.
+     */
+    public long tryAcquire(String url) {
+        String host = hostKey(url);
+        HostQueue queue = hosts.computeIfAbsent(host, h -> new HostQueue(h, delayFor(h)));
+        synchronized (queue) {
+            long now = System.nanoTime();
+            if (now - queue.readyAt >= 0) {
+                queue.readyAt = now + TimeUnit.MILLISECONDS.toNanos(queue.delayMs);
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(queue.readyAt - now));
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // True if take() would return a URL right now without waiting for a politeness delay
+    public boolean hasReadyHost() {
+        HostQueue next = readyHosts.peek();
+        return next != null && next.getDelay(TimeUnit.NANOSECONDS) <= 0;
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public int hostCount() {
+        return hosts.size();
+    }
+
+    private void scheduleIfIdle(HostQueue queue) {
+        if (!queue.busy && !queue.scheduled && !queue.urls.isEmpty()) {
+            queue.scheduled = true;
+            readyHosts.put(queue);
+        }
+    }
+
+    // An override for "host:port" wins over one for the bare host
+    private long delayFor(String host) {
+        Long delay = hostDelays.get(host);
+        int colon = host.lastIndexOf(':');
+        if (delay == null && colon > host.lastIndexOf(']')) {
+            delay = hostDelays.get(host.substring(0, colon));
+        }
+        return delay != null ? delay : defaultDelayMs;
+    }
+
+    // Normalized authority of the URL, see normalizeHost; "" if it has none
+    public static String hostKey(String url) {
+        try {
+            String authority = URI.create(url).getRawAuthority();
+            return authority != null ? normalizeHost(authority) : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Lower-cased authority without user info, a leading "www." and the
+     * default port, so "http://WWW.Example.com:80/" and "http://example.com/"
+     * share one queue and one delay. Any other port is kept.
+     */
+    static String normalizeHost(String authority) {
+        String host = authority.trim().toLowerCase();
+        int at = host.lastIndexOf('@');
+        if (at >= 0) {
+            host = host.substring(at + 1);
+        }
+        if (host.endsWith(":80") || host.endsWith(":443")) {
+            host = host.substring(0, host.lastIndexOf(':'));
+        }
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        return host;
+    }
+
+    // Parses "host=delayMs" pairs separated by commas, e.g. "example.com=2000,slow.org=5000"
+    public static Map<String, Long> parseHostDelays(String spec) {
+        Map<String, Long> delays = new HashMap<>();
+        if (spec == null || spec.trim().isEmpty()) {
+            return delays;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length == 2) {
+                try {
+                    delays.put(normalizeHost(parts[0]), Long.parseLong(parts[1].trim()));
+                } catch (NumberFormatException e) {
+                    // Skip invalid entries
+                }
+            }
+        }
+        return delays;
+    }
+
+    private static class HostQueue implements Delayed {
+        private final String host;
+        private final long delayMs;
+        private final ArrayDeque<String> urls = new ArrayDeque<>();
+        private long readyAt = System.nanoTime();
+        private long nextSlot = readyAt;
+        private boolean scheduled;
+        private boolean busy;
+
+        HostQueue(String host, long delayMs) {
+            this.host = host;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof HostQueue) {
+                return Long.compare(readyAt, ((HostQueue) other).readyAt);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public String toString() {
+            return host;
+        }
+    }
+}
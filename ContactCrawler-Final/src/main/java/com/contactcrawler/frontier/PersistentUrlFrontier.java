@@ -0,0 +1,444 @@
+package com.contactcrawler.frontier;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed URL frontier of one crawl job.
+ *
+ * Every accepted URL is appended to a segment file before it becomes
+ * visible to workers, and only a bounded head of the queue is kept in
+ * memory (inside a {@link HostPolitenessScheduler}). The rest is read back
+ * from memory-mapped segments as the head drains, or when no host in the
+ * head may be contacted yet, in which case the head may grow to twice its
+ * capacity so URLs of other hosts on disk are not stuck behind one slow
+ * host. Finished URLs go to an append-only visited log, so after a restart
+ * the frontier replays its segments and skips everything that was already
+ * fetched.
+ */
+public class PersistentUrlFrontier implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String VISITED_FILE = "visited.log";
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final HostPolitenessScheduler head;
+    private final int memoryCapacity;
+    private final long segmentBytes;
+    private final int checkpointInterval;
+
+    private final VisitedUrlSet seenUrls;
+    // Only set on resume: URLs finished before the restart that are still in the segments
+    private VisitedUrlSet visitedBeforeRestart;
+    private final AtomicInteger completedSinceCheckpoint = new AtomicInteger(0);
+    // Accepted URLs that are not completed yet, whether queued or in flight
+    private final AtomicLong outstanding = new AtomicLong(0);
+
+    private final Object diskLock = new Object();
+    private boolean closed;
+    private int writeSegment;
+    private long writeOffset;
+    private FileChannel segmentChannel;
+    private OutputStream segmentOut;
+    private int readSegment;
+    private long readOffset;
+    private long unloaded;
+    private FileChannel visitedChannel;
+    private OutputStream visitedOut;
+
+    private PersistentUrlFrontier(Path directory, HostPolitenessScheduler head, VisitedUrlSet seenUrls,
+                                  int memoryCapacity, long segmentBytes, int checkpointInterval) {
+        this.directory = directory;
+        this.head = head;
+        this.seenUrls = seenUrls;
+        this.memoryCapacity = Math.max(1, memoryCapacity);
+        this.segmentBytes = Math.max(WRITE_BUFFER_SIZE, segmentBytes);
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+
+    public static PersistentUrlFrontier create(Path directory, HostPolitenessScheduler head, VisitedUrlSet seenUrls,
+                                               int memoryCapacity, long segmentBytes,
+                                               int checkpointInterval) throws IOException {
+        Files.createDirectories(directory);
+        PersistentUrlFrontier frontier = new PersistentUrlFrontier(
+            directory, head, seenUrls, memoryCapacity, segmentBytes, checkpointInterval);
+        frontier.openSegmentWriter(0);
+        frontier.openVisitedWriter();
+        return frontier;
+    }
+
+    /**
+     * Reopens the frontier of an interrupted job. All segments are replayed to
+     * rebuild the seen set, and reading starts again at the first segment:
+     * URLs that were in the in-memory head at the crash are recorded nowhere
+     * else. URLs in the visited log are skipped when the head is refilled.
+     */
+    public static PersistentUrlFrontier resume(Path directory, HostPolitenessScheduler head, VisitedUrlSet seenUrls,
+                                               int memoryCapacity, long segmentBytes,
+                                               int checkpointInterval) throws IOException {
+        PersistentUrlFrontier frontier = new PersistentUrlFrontier(
+            directory, head, seenUrls, memoryCapacity, segmentBytes, checkpointInterval);
+
+        frontier.visitedBeforeRestart = new VisitedUrlSet(memoryCapacity, true);
+        Path visitedFile = directory.resolve(VISITED_FILE);
+        if (Files.exists(visitedFile)) {
+            truncateToLastRecord(visitedFile);
+            forEachRecord(visitedFile, url -> frontier.visitedBeforeRestart.add(url));
+        }
+
+        List<Integer> segments = listSegments(directory);
+        int lastSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        for (int segment : segments) {
+            Path path = frontier.segmentPath(segment);
+            if (segment == lastSegment) {
+                truncateToLastRecord(path);
+            }
+            forEachRecord(path, url -> {
+                frontier.seenUrls.add(url);
+                frontier.unloaded++;
+                if (!frontier.visitedBeforeRestart.contains(url)) {
+                    frontier.outstanding.incrementAndGet();
+                }
+            });
+        }
+
+        frontier.readSegment = segments.isEmpty() ? 0 : segments.get(0);
+        frontier.readOffset = 0;
+        frontier.openSegmentWriter(lastSegment);
+        frontier.openVisitedWriter();
+        frontier.refill(frontier.memoryCapacity);
+        return frontier;
+    }
+
+    public boolean offer(String url) {
+        if (url == null || url.indexOf('\n') >= 0 || url.indexOf('\r') >= 0 || !seenUrls.add(url)) {
+            return false;
+        }
+        byte[] record = (url + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (diskLock) {
+            try {
+                if (writeOffset > 0 && writeOffset + record.length > segmentBytes) {
+                    rollSegment();
+                }
+                segmentOut.write(record);
+                writeOffset += record.length;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to frontier segment", e);
+            }
+            // Only once written, a URL that failed to go to disk would keep the frontier from ever finishing.
+            // Before the head sees it, so it cannot be completed first
+            outstanding.incrementAndGet();
+            if (unloaded == 0 && head.size() < memoryCapacity) {
+                // Nothing is waiting on disk, so the URL goes straight to memory
+                head.offer(url);
+                readSegment = writeSegment;
+                readOffset = writeOffset;
+            } else {
+                unloaded++;
+            }
+        }
+        return true;
+    }
+
+    // Blocks until a URL whose host may be contacted now is available; null once the frontier is shut down
+    public String take() throws InterruptedException {
+        if (head.size() < memoryCapacity / 2) {
+            refill(memoryCapacity);
+        } else if (!head.hasReadyHost()) {
+            // Everything in memory waits for its host; URLs of other hosts may be waiting on disk
+            refill(2 * memoryCapacity);
+        }
+        return head.take();
+    }
+
+    // Wakes every thread blocked in take(); called once the job is over
+    public void shutdown() {
+        head.shutdown();
+    }
+
+    public void release(String url, boolean contacted) {
+        head.release(url, contacted);
+    }
+
+    // Records a finished URL so that it is not fetched again after a restart
+    public void complete(String url) {
+        byte[] record = (url + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (diskLock) {
+            try {
+                // Links found on the page must reach the segment before the page counts as visited
+                segmentOut.flush();
+                visitedOut.write(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to visited log", e);
+            }
+        }
+        completedSinceCheckpoint.incrementAndGet();
+        outstanding.decrementAndGet();
+    }
+
+    public boolean isCheckpointDue() {
+        return completedSinceCheckpoint.get() >= checkpointInterval;
+    }
+
+    /**
+     * Flushes segments before the visited log and then atomically replaces the
+     * checkpoint file, so a URL is never recorded as visited while the links
+     * discovered on it are still only in memory.
+     */
+    public void checkpoint(Properties state) {
+        synchronized (diskLock) {
+            try {
+                segmentOut.flush();
+                segmentChannel.force(false);
+                visitedOut.flush();
+                visitedChannel.force(false);
+
+                Properties checkpoint = new Properties();
+                checkpoint.putAll(state);
+
+                Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    checkpoint.store(out, "Crawl frontier checkpoint");
+                }
+                Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                completedSinceCheckpoint.set(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write frontier checkpoint", e);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (diskLock) {
+            return (int) Math.min(Integer.MAX_VALUE, head.size() + unloaded);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // True once every accepted URL has been completed, so nothing is queued and nothing is in flight.
+    // Links are offered before their page completes, so this never holds while a page can still add work
+    public boolean isFinished() {
+        return outstanding.get() == 0;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        head.shutdown();
+        synchronized (diskLock) {
+            closed = true;
+            segmentOut.close();
+            visitedOut.close();
+        }
+    }
+
+    // Closes the frontier and removes all of its files
+    public void delete() throws IOException {
+        close();
+        deleteDirectory(directory);
+    }
+
+    // Removes the files of a frontier that is not open, e.g. of a paused job that is cancelled
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    public static List<Path> listJobDirectories(Path baseDirectory) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        if (!Files.isDirectory(baseDirectory)) {
+            return directories;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDirectory)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path.resolve(CHECKPOINT_FILE))) {
+                    directories.add(path);
+                }
+            }
+        }
+        return directories;
+    }
+
+    public static Properties readCheckpoint(Path directory) throws IOException {
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(CHECKPOINT_FILE))) {
+            checkpoint.load(in);
+        }
+        return checkpoint;
+    }
+
+    // Moves URLs from disk into the head until it holds limit URLs or nothing is left on disk
+    private void refill(int limit) {
+        synchronized (diskLock) {
+            if (closed || unloaded == 0) {
+                return;
+            }
+            try {
+                segmentOut.flush();
+                while (unloaded > 0 && head.size() < limit) {
+                    long consumed = loadFromSegment(readSegment, readOffset, limit);
+                    if (consumed > 0) {
+                        readOffset += consumed;
+                    } else if (readSegment < writeSegment) {
+                        readSegment++;
+                        readOffset = 0;
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read frontier segment", e);
+            }
+        }
+    }
+
+    // Maps the unread part of a segment and moves complete records into the head; returns bytes consumed
+    private long loadFromSegment(int segment, long offset, int limit) throws IOException {
+        Path path = segmentPath(segment);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size() - offset;
+            if (length <= 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                Math.min(length, Integer.MAX_VALUE));
+            int lineStart = 0;
+            int end = buffer.limit();
+            for (int i = 0; i < end && unloaded > 0 && head.size() < limit; i++) {
+                if (buffer.get(i) != '\n') {
+                    continue;
+                }
+                byte[] bytes = new byte[i - lineStart];
+                buffer.get(lineStart, bytes);
+                lineStart = i + 1;
+                unloaded--;
+                String url = new String(bytes, StandardCharsets.UTF_8);
+                if (visitedBeforeRestart == null || !visitedBeforeRestart.contains(url)) {
+                    head.offer(url);
+                }
+            }
+            return lineStart;
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        segmentOut.close();
+        openSegmentWriter(writeSegment + 1);
+    }
+
+    private void openSegmentWriter(int segment) throws IOException {
+        writeSegment = segment;
+        segmentChannel = FileChannel.open(segmentPath(segment),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writeOffset = segmentChannel.size();
+        segmentOut = new BufferedOutputStream(Channels.newOutputStream(segmentChannel), WRITE_BUFFER_SIZE);
+    }
+
+    private void openVisitedWriter() throws IOException {
+        visitedChannel = FileChannel.open(directory.resolve(VISITED_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        visitedOut = new BufferedOutputStream(Channels.newOutputStream(visitedChannel), WRITE_BUFFER_SIZE);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static List<Integer> listSegments(Path directory) throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    segments.add(Integer.parseInt(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment written by this class
+                }
+            }
+        }
+        segments.sort(Integer::compare);
+        return segments;
+    }
+
+    private static void forEachRecord(Path path, Consumer<String> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            int lineStart = 0;
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    byte[] bytes = new byte[i - lineStart];
+                    buffer.get(lineStart, bytes);
+                    consumer.accept(new String(bytes, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+        }
+    }
+
+    // Drops a torn record left by a crash in the middle of a write
+    private static void truncateToLastRecord(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = size;
+            ByteBuffer single = ByteBuffer.allocate(1);
+            while (position > 0) {
+                single.clear();
+                channel.read(single, position - 1);
+                if (single.get(0) == '\n') {
+                    break;
+                }
+                position--;
+            }
+            if (position < size) {
+                channel.truncate(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.contactcrawler.frontier;
+
+import com.contactcrawler.util.BloomFilter;
+import com.contactcrawler.util.FingerprintSet;
+import com.contactcrawler.util.Fingerprints;
+
+/**
+ * Set of URLs kept as 64-bit fingerprints instead of strings. An optional
+ * Bloom filter in front answers most "never seen" {@link #contains} lookups
+ * without touching the fingerprint table. It does nothing for {@link #add}:
+ * inserting needs the same table probe as checking, so use it only for sets
+ * that are mostly queried, not for seen-sets that are only added to.
+ */
+public class VisitedUrlSet {
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    private final FingerprintSet fingerprints;
+    private final BloomFilter bloomFilter;
+
+    public VisitedUrlSet(int expectedUrls, boolean bloomFront) {
+        this.fingerprints = new FingerprintSet(expectedUrls);
+        this.bloomFilter = bloomFront ? new BloomFilter(expectedUrls, BLOOM_FALSE_POSITIVE_RATE) : null;
+    }
+
+    // Returns true if the URL was not in the set before. Always probes the table; the filter is only updated
+    public boolean add(String url) {
+        long fingerprint = Fingerprints.of(url);
+        if (bloomFilter != null) {
+            bloomFilter.put(fingerprint);
+        }
+        return fingerprints.add(fingerprint);
+    }
+
+    public boolean contains(String url) {
+        long fingerprint = Fingerprints.of(url);
+        if (bloomFilter != null && !bloomFilter.mightContain(fingerprint)) {
+            return false;
+        }
+        return fingerprints.contains(fingerprint);
+    }
+
+    public long size() {
+        return fingerprints.size();
+    }
+
+    public long memoryBytes() {
+        return fingerprints.memoryBytes() + (bloomFilter != null ? bloomFilter.memoryBytes() : 0);
+    }
+}
@@ -5,7 +5,8 @@ import java.util.UUID;
 
 public class CrawlJob {
     private String jobId;
-    private JobStatus status;
+    // Written by the API thread on cancel, pause and resume, read by the workers
+    private volatile JobStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
     private int totalPages;
@@ -14,7 +15,7 @@ public class CrawlJob {
     private String errorMessage;
 
     public enum JobStatus {
-        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+        PENDING, RUNNING, PAUSED, COMPLETED, FAILED, CANCELLED
     }
 
     public CrawlJob() {
@@ -0,0 +1,149 @@
+package com.contactcrawler.model;
+
+import javax.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Entity
+// Listed newest first
+@Table(name = "crawl_job_history", indexes = {
+    @Index(name = "idx_job_completed_at", columnList = "completed_at DESC, job_id")
+})
+public class CrawlJobHistory {
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CrawlJob.JobStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "total_pages")
+    private int totalPages;
+
+    @Column(name = "processed_pages")
+    private int processedPages;
+
+    @Column(name = "found_organizations")
+    private int foundOrganizations;
+
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+
+    public CrawlJobHistory() {
+    }
+
+    // Summary of a job that has finished
+    public static CrawlJobHistory of(CrawlJob job) {
+        CrawlJobHistory history = new CrawlJobHistory();
+        history.jobId = job.getJobId();
+        history.status = job.getStatus();
+        history.createdAt = job.getCreatedAt();
+        history.completedAt = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+        history.durationMs = job.getCreatedAt() != null
+            ? Duration.between(job.getCreatedAt(), history.completedAt).toMillis()
+            : null;
+        history.totalPages = job.getTotalPages();
+        history.processedPages = job.getProcessedPages();
+        history.foundOrganizations = job.getFoundOrganizations();
+        String error = job.getErrorMessage();
+        history.errorMessage = error != null && error.length() > 2000 ? error.substring(0, 2000) : error;
+        return history;
+    }
+
+    // The job as the status endpoint reports it
+    public CrawlJob toCrawlJob() {
+        CrawlJob job = new CrawlJob();
+        job.setJobId(jobId);
+        job.setStatus(status);
+        job.setCreatedAt(createdAt);
+        job.setCompletedAt(completedAt);
+        job.setTotalPages(totalPages);
+        job.setProcessedPages(processedPages);
+        job.setFoundOrganizations(foundOrganizations);
+        job.setErrorMessage(errorMessage);
+        return job;
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public CrawlJob.JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CrawlJob.JobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public int getProcessedPages() {
+        return processedPages;
+    }
+
+    public void setProcessedPages(int processedPages) {
+        this.processedPages = processedPages;
+    }
+
+    public int getFoundOrganizations() {
+        return foundOrganizations;
+    }
+
+    public void setFoundOrganizations(int foundOrganizations) {
+        this.foundOrganizations = foundOrganizations;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
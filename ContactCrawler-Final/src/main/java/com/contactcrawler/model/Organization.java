@@ -1,15 +1,20 @@
 package com.contactcrawler.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Sort columns are indexed together with id, in both directions, so keyset pages come out of the index pre-sorted
 @Table(name = "organizations", indexes = {
-    @Index(name = "idx_website", columnList = "website"),
-    @Index(name = "idx_name", columnList = "name"),
-    @Index(name = "idx_crawled_at", columnList = "crawled_at")
+    @Index(name = "idx_website_id", columnList = "website, id"),
+    @Index(name = "idx_name_id", columnList = "name, id"),
+    @Index(name = "idx_name_id_desc", columnList = "name DESC, id DESC"),
+    @Index(name = "idx_crawled_at_id", columnList = "crawled_at, id"),
+    @Index(name = "idx_crawled_at_id_desc", columnList = "crawled_at DESC, id DESC")
 })
 public class Organization {
     @Id
@@ -22,7 +27,10 @@ public class Organization {
     @Column(length = 1000)
     private String website;
 
+    // Where entities are still read (searchOrganizations, derived finders), touching one lazy collection loads
+    // it for up to 100 organizations of the session in one query, not one query per organization
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @CollectionTable(name = "organization_phones", 
                      joinColumns = @JoinColumn(name = "organization_id"),
                      indexes = @Index(name = "idx_phone", columnList = "phone"))
@@ -30,6 +38,7 @@ public class Organization {
     private Set<String> phones = new HashSet<>();
 
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @CollectionTable(name = "organization_emails", 
                      joinColumns = @JoinColumn(name = "organization_id"),
                      indexes = @Index(name = "idx_email", columnList = "email"))
@@ -37,6 +46,7 @@ public class Organization {
     private Set<String> emails = new HashSet<>();
 
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @CollectionTable(name = "organization_addresses", 
                      joinColumns = @JoinColumn(name = "organization_id"))
     @Column(name = "address", length = 500)
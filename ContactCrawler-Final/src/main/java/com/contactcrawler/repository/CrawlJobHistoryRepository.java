@@ -0,0 +1,14 @@
+package com.contactcrawler.repository;
+
+import com.contactcrawler.model.CrawlJobHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrawlJobHistoryRepository extends JpaRepository<CrawlJobHistory, String> {
+
+    // Newest first; job id breaks ties, so pages do not overlap
+    Page<CrawlJobHistory> findAllByOrderByCompletedAtDescJobIdAsc(Pageable pageable);
+}
@@ -12,20 +12,36 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrganizationRepository extends JpaRepository<Organization, Long> {
+public interface OrganizationRepository extends JpaRepository<Organization, Long>, OrganizationRepositoryCustom {
     
-    @Query("SELECT DISTINCT o FROM Organization o LEFT JOIN FETCH o.phones LEFT JOIN FETCH o.emails LEFT JOIN FETCH o.addresses WHERE " +
-           "LOWER(o.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(o.website) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "EXISTS (SELECT 1 FROM o.phones p WHERE p LIKE CONCAT('%', :search, '%')) OR " +
-           "EXISTS (SELECT 1 FROM o.emails e WHERE e LIKE CONCAT('%', :search, '%')) OR " +
-           "EXISTS (SELECT 1 FROM o.addresses a WHERE LOWER(a) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Organization> searchOrganizations(@Param("search") String search, Pageable pageable);
-
-    @Query("SELECT DISTINCT o FROM Organization o LEFT JOIN FETCH o.phones LEFT JOIN FETCH o.emails WHERE :phone MEMBER OF o.phones")
+    // No fetch joins: with a Pageable they would make Hibernate page in memory. Collections come in batches instead
+    @Query(value = "SELECT o FROM Organization o WHERE " + SEARCH_CONDITION,
+           countQuery = "SELECT COUNT(o) FROM Organization o WHERE " + SEARCH_CONDITION)
+    Page<Organization> searchByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    default Page<Organization> searchOrganizations(String search, Pageable pageable) {
+        return searchByPattern(OrganizationRepositoryCustom.searchPattern(search), pageable);
+    }
+
+    @Query("SELECT DISTINCT o FROM Organization o LEFT JOIN FETCH o.phones LEFT JOIN FETCH o.emails LEFT JOIN FETCH o.addresses WHERE :phone MEMBER OF o.phones")
     Optional<Organization> findByPhone(@Param("phone") String phone);
 
-    @Query("SELECT DISTINCT o FROM Organization o LEFT JOIN FETCH o.phones LEFT JOIN FETCH o.emails WHERE :email MEMBER OF o.emails")
+    @Query("SELECT o.id, p FROM Organization o JOIN o.phones p")
+    List<Object[]> findAllPhoneKeys();
+
+    @Query("SELECT o.id, e FROM Organization o JOIN o.emails e")
+    List<Object[]> findAllEmailKeys();
+
+    @Query("SELECT o.id, o.website FROM Organization o")
+    List<Object[]> findAllWebsiteKeys();
+
+    @Query("SELECT o.id, a FROM Organization o JOIN o.addresses a")
+    List<Object[]> findAllAddressKeys();
+
+    @Query("SELECT o.id, o.name, o.website, o.crawledAt FROM Organization o ORDER BY o.id")
+    List<Object[]> findAllSearchKeys();
+
+    @Query("SELECT DISTINCT o FROM Organization o LEFT JOIN FETCH o.phones LEFT JOIN FETCH o.emails LEFT JOIN FETCH o.addresses WHERE :email MEMBER OF o.emails")
     Optional<Organization> findByEmail(@Param("email") String email);
 
     List<Organization> findByNameContainingIgnoreCase(String name);
@@ -0,0 +1,51 @@
+package com.contactcrawler.repository;
+
+import com.contactcrawler.model.Organization;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrganizationRepositoryCustom {
+
+    // Matches :pattern (see searchPattern) against the same fields as DataProcessingService.matchesSearch;
+    // phones are compared as stored. Shared by every search query, including OrganizationRepository's @Query
+    String SEARCH_CONDITION =
+        "(LOWER(o.name) LIKE :pattern ESCAPE '\\' OR " +
+        "LOWER(o.website) LIKE :pattern ESCAPE '\\' OR " +
+        "EXISTS (SELECT 1 FROM o.phones p WHERE p LIKE :pattern ESCAPE '\\') OR " +
+        "EXISTS (SELECT 1 FROM o.emails e WHERE LOWER(e) LIKE :pattern ESCAPE '\\') OR " +
+        "EXISTS (SELECT 1 FROM o.addresses a WHERE LOWER(a) LIKE :pattern ESCAPE '\\'))";
+
+    // LIKE pattern for SEARCH_CONDITION: lower-cased, wildcards escaped, matching anywhere. Null for no search
+    static String searchPattern(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return null;
+        }
+        String escaped = search.toLowerCase()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    // One page sorted in the database; seeks past the cursor when given, otherwise skips offset rows.
+    // The organizations returned here are detached and come with their contacts loaded
+    List<Organization> findPage(String search, PageCursor.SortField sortField, boolean ascending,
+                                PageCursor after, int offset, int limit);
+
+    long countMatching(String search);
+
+    // Every organization with its contacts, read in one query for the rows and one per collection
+    List<Organization> findAllWithContacts();
+
+    // The organizations with these ids (at most a few hundred) and their contacts, in id order
+    List<Organization> findWithContactsByIdIn(Collection<Long> ids);
+
+    // All matches in id order through a forward-only cursor, without contacts. Must be consumed and closed
+    // inside a transaction
+    Stream<Organization> streamAll(String search, int fetchSize);
+
+    // Fills phones, emails and addresses of organizations built by the methods above, one query per collection
+    List<Organization> loadContacts(List<Organization> organizations);
+}
@@ -0,0 +1,244 @@
+package com.contactcrawler.repository;
+
+import com.contactcrawler.model.Organization;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Listing queries that Spring Data cannot derive: the ORDER BY, the keyset
+ * condition and the search filter all run in the database, and only
+ * {@code limit} rows are read, so neither time nor memory depends on how
+ * deep into the listing a page is.
+ * <p>
+ * Each query orders by (sort column, id) in one direction, which the
+ * composite indexes on Organization return pre-sorted, and seeks past the
+ * cursor with a range condition on the sort column. Rows without a value
+ * sort last ascending and first descending, as the in-memory comparator
+ * did; an "IS NULL OR ..." condition would defeat the index, so nullable
+ * columns are read as two segments, the rows with a value and the rows
+ * without, each with its own query.
+ * <p>
+ * Reads return detached organizations built from scalar rows, with their
+ * phones, emails and addresses loaded by one query per collection for all
+ * rows at once, instead of lazily per organization as they are serialized.
+ */
+public class OrganizationRepositoryImpl implements OrganizationRepositoryCustom {
+
+    // Element collections filled by loadContacts, one query each
+    private static final String[] CONTACT_COLLECTIONS = {"phones", "emails", "addresses"};
+
+    // Ids per IN list; lists of thousands of ids are much slower than several short ones
+    private static final int ID_CHUNK_SIZE = 500;
+
+    // Everything of an organization except its collections, in the order detached() reads it
+    private static final String ROW_SELECT =
+        "SELECT o.id, o.name, o.website, o.sourceUrl, o.crawledAt, o.description FROM Organization o";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Organization> findPage(String search, PageCursor.SortField sortField, boolean ascending,
+                                       PageCursor after, int offset, int limit) {
+        String column = "o." + sortField.getProperty();
+        String direction = ascending ? " ASC" : " DESC";
+        String pattern = OrganizationRepositoryCustom.searchPattern(search);
+
+        if (!sortField.isNullable()) {
+            String condition = after != null ? valueSeek(column, ascending) : null;
+            return loadContacts(select(pattern, condition, column + direction + ", o.id" + direction, after, offset, limit));
+        }
+        if (after == null && offset > 0) {
+            // Offset paging reads every skipped row anyway, so one query over both segments is as good as two
+            String orderBy = column + direction + (ascending ? " NULLS LAST" : " NULLS FIRST") + ", o.id" + direction;
+            return loadContacts(select(pattern, null, orderBy, null, offset, limit));
+        }
+
+        boolean afterValues = after != null && after.getLastValue() != null;
+        boolean afterNulls = after != null && after.getLastValue() == null;
+        String valuesOrder = column + direction + ", o.id" + direction;
+        String nullsOrder = "o.id" + direction;
+        List<Organization> page = new ArrayList<>(limit);
+        if (ascending) {
+            if (!afterNulls) {
+                String condition = afterValues ? valueSeek(column, true) : column + " IS NOT NULL";
+                page.addAll(select(pattern, condition, valuesOrder, after, 0, limit));
+            }
+            if (page.size() < limit) {
+                String condition = column + " IS NULL" + (afterNulls ? " AND o.id > :lastId" : "");
+                page.addAll(select(pattern, condition, nullsOrder, afterNulls ? after : null, 0, limit - page.size()));
+            }
+        } else {
+            if (!afterValues) {
+                String condition = column + " IS NULL" + (afterNulls ? " AND o.id < :lastId" : "");
+                page.addAll(select(pattern, condition, nullsOrder, afterNulls ? after : null, 0, limit));
+            }
+            if (page.size() < limit) {
+                String condition = afterValues ? valueSeek(column, false) : column + " IS NOT NULL";
+                page.addAll(select(pattern, condition, valuesOrder, afterValues ? after : null, 0, limit - page.size()));
+            }
+        }
+        return loadContacts(page);
+    }
+
+    @Override
+    public long countMatching(String search) {
+        String pattern = OrganizationRepositoryCustom.searchPattern(search);
+        if (pattern == null) {
+            return entityManager.createQuery("SELECT COUNT(o) FROM Organization o", Long.class).getSingleResult();
+        }
+        return entityManager.createQuery("SELECT COUNT(o) FROM Organization o WHERE " + SEARCH_CONDITION, Long.class)
+            .setParameter("pattern", pattern)
+            .getSingleResult();
+    }
+
+    @Override
+    public List<Organization> findAllWithContacts() {
+        return loadContacts(detached(entityManager.createQuery(ROW_SELECT + " ORDER BY o.id", Object[].class)
+            .getResultList()));
+    }
+
+    @Override
+    public List<Organization> findWithContactsByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return loadContacts(detached(entityManager.createQuery(ROW_SELECT + " WHERE o.id IN :ids ORDER BY o.id", Object[].class)
+            .setParameter("ids", ids)
+            .getResultList()));
+    }
+
+    @Override
+    public Stream<Organization> streamAll(String search, int fetchSize) {
+        String pattern = OrganizationRepositoryCustom.searchPattern(search);
+        // Scalars rather than entities, so nothing accumulates in the persistence context while streaming
+        String jpql = ROW_SELECT + (pattern != null ? " WHERE " + SEARCH_CONDITION : "") + " ORDER BY o.id";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        return query.getResultStream().map(OrganizationRepositoryImpl::detached);
+    }
+
+    @Override
+    public List<Organization> loadContacts(List<Organization> organizations) {
+        if (organizations.isEmpty()) {
+            return organizations;
+        }
+        Map<Long, Organization> byId = new HashMap<>(organizations.size() * 2);
+        long firstId = Long.MAX_VALUE;
+        long lastId = Long.MIN_VALUE;
+        for (Organization org : organizations) {
+            byId.put(org.getId(), org);
+            firstId = Math.min(firstId, org.getId());
+            lastId = Math.max(lastId, org.getId());
+            org.setPhones(new LinkedHashSet<>());
+            org.setEmails(new LinkedHashSet<>());
+            org.setAddresses(new LinkedHashSet<>());
+        }
+        // Nearly consecutive ids are read as a range, which is much cheaper than a long IN list. Scattered ids
+        // (search matches, sorted pages) would drag in the collections of every row in between, so they go by id
+        boolean range = lastId - firstId < 2L * organizations.size();
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (String collection : CONTACT_COLLECTIONS) {
+            String jpql = "SELECT o.id, c FROM Organization o JOIN o." + collection + " c WHERE o.id ";
+            List<Object[]> rows = new ArrayList<>();
+            if (range) {
+                rows.addAll(entityManager.createQuery(jpql + "BETWEEN :firstId AND :lastId", Object[].class)
+                    .setParameter("firstId", firstId)
+                    .setParameter("lastId", lastId)
+                    .getResultList());
+            } else {
+                for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+                    rows.addAll(entityManager.createQuery(jpql + "IN :ids", Object[].class)
+                        .setParameter("ids", ids.subList(from, Math.min(ids.size(), from + ID_CHUNK_SIZE)))
+                        .getResultList());
+                }
+            }
+            for (Object[] row : rows) {
+                Organization org = byId.get((Long) row[0]);
+                if (org != null) {
+                    contacts(org, collection).add((String) row[1]);
+                }
+            }
+        }
+        return organizations;
+    }
+
+    private List<Organization> select(String pattern, String condition, String orderBy,
+                                      PageCursor after, int offset, int limit) {
+        StringBuilder jpql = new StringBuilder(ROW_SELECT + " WHERE 1 = 1");
+        if (pattern != null) {
+            jpql.append(" AND ").append(SEARCH_CONDITION);
+        }
+        if (condition != null) {
+            jpql.append(" AND ").append(condition);
+        }
+        jpql.append(" ORDER BY ").append(orderBy);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        if (after != null) {
+            query.setParameter("lastId", after.getLastId());
+            if (after.getLastValue() != null) {
+                query.setParameter("lastValue", after.getLastValue());
+            }
+        }
+        if (offset > 0) {
+            query.setFirstResult(offset);
+        }
+        return detached(query.setMaxResults(limit).getResultList());
+    }
+
+    private static List<Organization> detached(List<Object[]> rows) {
+        List<Organization> organizations = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            organizations.add(detached(row));
+        }
+        return organizations;
+    }
+
+    private static Organization detached(Object[] row) {
+        Organization org = new Organization((String) row[1], (String) row[2]);
+        org.setId((Long) row[0]);
+        org.setSourceUrl((String) row[3]);
+        org.setCrawledAt((LocalDateTime) row[4]);
+        org.setDescription((String) row[5]);
+        return org;
+    }
+
+    private static Set<String> contacts(Organization org, String collection) {
+        switch (collection) {
+            case "phones":
+                return org.getPhones();
+            case "emails":
+                return org.getEmails();
+            default:
+                return org.getAddresses();
+        }
+    }
+
+    // Rows after (lastValue, lastId), written as a range on the sort column so the index can seek to it
+    private static String valueSeek(String column, boolean ascending) {
+        return ascending
+            ? "(" + column + " >= :lastValue AND (" + column + " > :lastValue OR o.id > :lastId))"
+            : "(" + column + " <= :lastValue AND (" + column + " < :lastValue OR o.id < :lastId))";
+    }
+}
@@ -0,0 +1,132 @@
+package com.contactcrawler.repository;
+
+import com.contactcrawler.model.Organization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing of organizations: the sort key and
+ * id of the last row a client has seen, plus the sort it was read under.
+ * Serialized as an opaque URL-safe token; the next page seeks past it with a
+ * range condition on the sort column instead of skipping rows, so every page
+ * costs the same.
+ */
+public final class PageCursor {
+
+    public enum SortField {
+        NAME("name", false),
+        WEBSITE("website", true),
+        CRAWLED_AT("crawledAt", true);
+
+        private final String property;
+        private final boolean nullable;
+
+        SortField(String property, boolean nullable) {
+            this.property = property;
+            this.nullable = nullable;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public boolean isNullable() {
+            return nullable;
+        }
+
+        // Same names as DataProcessingService.comparator; anything else sorts by name
+        public static SortField parse(String sortBy) {
+            if (sortBy == null) {
+                return NAME;
+            }
+            switch (sortBy.toLowerCase()) {
+                case "website":
+                    return WEBSITE;
+                case "crawledat":
+                case "crawled_at":
+                    return CRAWLED_AT;
+                default:
+                    return NAME;
+            }
+        }
+
+        Object valueOf(Organization organization) {
+            switch (this) {
+                case WEBSITE:
+                    return organization.getWebsite();
+                case CRAWLED_AT:
+                    return organization.getCrawledAt();
+                default:
+                    return organization.getName();
+            }
+        }
+    }
+
+    private static final String VERSION = "1";
+
+    private final SortField sortField;
+    private final boolean ascending;
+    private final long lastId;
+    private final Object lastValue;
+
+    private PageCursor(SortField sortField, boolean ascending, long lastId, Object lastValue) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public static PageCursor after(Organization last, SortField sortField, boolean ascending) {
+        return new PageCursor(sortField, ascending, last.getId(), sortField.valueOf(last));
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    // String or LocalDateTime, depending on the sort field; null for rows without a value
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    // version|field|a or d|id|value, where the value is "-" for null or "=" followed by the text
+    public String encode() {
+        String value = lastValue == null ? "-" : "=" + lastValue;
+        String raw = VERSION + "|" + sortField.name() + "|" + (ascending ? "a" : "d") + "|" + lastId + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value is last and may itself contain '|'
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])
+                    || !("a".equals(parts[2]) || "d".equals(parts[2]))
+                    || !(parts[4].startsWith("-") || parts[4].startsWith("="))) {
+                throw new IllegalArgumentException("Malformed page cursor");
+            }
+            SortField sortField = SortField.valueOf(parts[1]);
+            long lastId = Long.parseLong(parts[3]);
+            Object lastValue = null;
+            if (parts[4].startsWith("=")) {
+                String text = parts[4].substring(1);
+                lastValue = sortField == SortField.CRAWLED_AT ? LocalDateTime.parse(text) : text;
+            }
+            return new PageCursor(sortField, "a".equals(parts[2]), lastId, lastValue);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed page cursor", e);
+        }
+    }
+}
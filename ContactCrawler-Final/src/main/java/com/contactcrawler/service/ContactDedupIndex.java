@@ -0,0 +1,166 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.repository.OrganizationRepository;
+import com.contactcrawler.util.FingerprintMap;
+import com.contactcrawler.util.Fingerprints;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * In-memory index of the contacts already stored in the database: normalized
+ * phone numbers, lowercased emails and website hosts, each kept as a 64-bit
+ * fingerprint mapped to the owning organization id. It is warmed from the
+ * database at startup and updated after every committed insert, so duplicate
+ * checks never go to the database.
+ */
+@Service
+public class ContactDedupIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDedupIndex.class);
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crawler.dedup.expected.keys:100000}")
+    private int expectedKeys;
+
+    private FingerprintMap index;
+
+    @PostConstruct
+    public void init() {
+        this.index = new FingerprintMap(expectedKeys);
+        Gauge.builder("contact.dedup.index.size", index, FingerprintMap::size)
+                .description("Contact keys held in the in-memory dedup index")
+                .register(meterRegistry);
+
+        long started = System.currentTimeMillis();
+        for (Object[] row : organizationRepository.findAllPhoneKeys()) {
+            putKey(phoneKey((String) row[1]), (Long) row[0]);
+        }
+        for (Object[] row : organizationRepository.findAllEmailKeys()) {
+            putKey(emailKey((String) row[1]), (Long) row[0]);
+        }
+        for (Object[] row : organizationRepository.findAllWebsiteKeys()) {
+            putKey(hostKey((String) row[1]), (Long) row[0]);
+        }
+        logger.info("Contact dedup index warmed with {} keys ({} KB) in {} ms",
+                index.size(), index.memoryBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    // Returns the id of an organization sharing a phone or an email with org, or NO_VALUE;
+    // the website host is only compared when org has neither
+    public long findDuplicate(Organization org) {
+        long[] keys = keysOf(org);
+        for (long key : keys) {
+            long id = key == 0 ? FingerprintMap.NO_VALUE : index.get(key);
+            if (id != FingerprintMap.NO_VALUE) {
+                return id;
+            }
+        }
+        return FingerprintMap.NO_VALUE;
+    }
+
+    // Call only once the organization is committed, otherwise a rolled back insert would hide later copies
+    public void register(Organization org) {
+        for (String phone : org.getPhones()) {
+            putKey(phoneKey(phone), org.getId());
+        }
+        for (String email : org.getEmails()) {
+            putKey(emailKey(email), org.getId());
+        }
+        putKey(hostKey(org.getWebsite()), org.getId());
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    // Fingerprints checked for org: every phone and email, or the website host if it has no contacts
+    public long[] keysOf(Organization org) {
+        int contacts = org.getPhones().size() + org.getEmails().size();
+        if (contacts == 0) {
+            long host = hostKey(org.getWebsite());
+            return host == 0 ? new long[0] : new long[] {host};
+        }
+        long[] keys = new long[contacts];
+        int i = 0;
+        for (String phone : org.getPhones()) {
+            keys[i++] = phoneKey(phone);
+        }
+        for (String email : org.getEmails()) {
+            keys[i++] = emailKey(email);
+        }
+        return keys;
+    }
+
+    private void putKey(long key, Long organizationId) {
+        if (key != 0 && organizationId != null) {
+            index.putIfAbsent(key, organizationId);
+        }
+    }
+
+    // 0 marks a value that yields no key
+    private static long phoneKey(String phone) {
+        String digits = normalizePhone(phone);
+        return digits.isEmpty() ? 0 : Fingerprints.of("tel:" + digits);
+    }
+
+    private static long emailKey(String email) {
+        if (email == null || email.isBlank()) {
+            return 0;
+        }
+        return Fingerprints.of("mailto:" + email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static long hostKey(String website) {
+        String host = extractHost(website);
+        return host == null ? 0 : Fingerprints.of("host:" + host);
+    }
+
+    // Digits only; a Russian trunk prefix 8 is folded into the country code 7
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 11 && digits.charAt(0) == '8') {
+            digits.setCharAt(0, '7');
+        }
+        return digits.toString();
+    }
+
+    private static String extractHost(String website) {
+        if (website == null || website.isBlank()) {
+            return null;
+        }
+        try {
+            String host = URI.create(website.trim()).getHost();
+            if (host == null) {
+                return null;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
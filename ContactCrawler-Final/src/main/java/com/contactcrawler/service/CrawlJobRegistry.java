@@ -0,0 +1,121 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.model.CrawlJob;
+import com.contactcrawler.model.CrawlJobHistory;
+import com.contactcrawler.repository.CrawlJobHistoryRepository;
+import com.contactcrawler.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crawl jobs of both engines. Only jobs that are running or paused are held
+ * in the live map. A job that reaches a final status is written to the job
+ * history table and kept in memory just for a while (bounded by count and
+ * age), so clients polling its status right after it ends do not hit the
+ * database. Older jobs are read back from the history table.
+ */
+@Service
+public class CrawlJobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlJobRegistry.class);
+
+    @Autowired
+    private CrawlJobHistoryRepository historyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crawler.jobs.finished.max:100}")
+    private long finishedMax;
+
+    @Value("${crawler.jobs.finished.ttl.ms:600000}")
+    private long finishedTtlMs;
+
+    private final ConcurrentHashMap<String, CrawlJob> liveJobs = new ConcurrentHashMap<>();
+
+    private ExpiringLruCache<String, CrawlJob> finishedJobs;
+
+    private Counter historyFailures;
+
+    @PostConstruct
+    public void init() {
+        this.finishedJobs = new ExpiringLruCache<>(finishedMax, finishedTtlMs, TimeUnit.MILLISECONDS, job -> 1);
+        Gauge.builder("contact.crawler.jobs.live", liveJobs, Map::size)
+                .description("Crawl jobs running or paused")
+                .register(meterRegistry);
+        Gauge.builder("contact.crawler.jobs.finished.cached", finishedJobs, ExpiringLruCache::size)
+                .description("Finished crawl jobs still held in memory")
+                .register(meterRegistry);
+        this.historyFailures = Counter.builder("contact.crawler.jobs.history.failures")
+                .description("Finished crawl jobs that could not be written to the job history")
+                .register(meterRegistry);
+    }
+
+    public void register(CrawlJob job) {
+        liveJobs.put(job.getJobId(), job);
+    }
+
+    // Call once, after the job got its final status (COMPLETED, FAILED or CANCELLED)
+    public void finish(CrawlJob job) {
+        try {
+            historyRepository.save(CrawlJobHistory.of(job));
+        } catch (Exception e) {
+            historyFailures.increment();
+            logger.warn("Failed to record crawl job {} in the job history: {}", job.getJobId(), e.getMessage());
+        }
+        // Cached before it leaves the live map, so a status lookup always finds it somewhere
+        finishedJobs.put(job.getJobId(), job);
+        liveJobs.remove(job.getJobId(), job);
+    }
+
+    // Running or paused only
+    public CrawlJob getLive(String jobId) {
+        return liveJobs.get(jobId);
+    }
+
+    // Live, recently finished or from the job history; null for an unknown job
+    public CrawlJob get(String jobId) {
+        CrawlJob job = liveJobs.get(jobId);
+        if (job == null) {
+            job = finishedJobs.get(jobId);
+        }
+        if (job == null) {
+            job = historyRepository.findById(jobId).map(CrawlJobHistory::toCrawlJob).orElse(null);
+        }
+        return job;
+    }
+
+    public Map<String, CrawlJob> getLiveJobs() {
+        return Collections.unmodifiableMap(liveJobs);
+    }
+
+    // Finished jobs, most recently finished first
+    public Page<CrawlJobHistory> getHistory(int page, int size) {
+        return historyRepository.findAllByOrderByCompletedAtDescJobIdAsc(PageRequest.of(page, size));
+    }
+
+    public long getHistoryCount() {
+        return historyRepository.count();
+    }
+
+    // Finished jobs are otherwise only dropped for age when the cache is used
+    @Scheduled(fixedDelayString = "${crawler.jobs.finished.cleanup.ms:60000}")
+    public void evictExpiredJobs() {
+        finishedJobs.evictExpired();
+    }
+}
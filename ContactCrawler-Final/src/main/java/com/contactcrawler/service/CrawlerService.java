@@ -1,13 +1,15 @@
 package com.contactcrawler.service;
 
-import com.contactcrawler.client.FeignHtmlClient;
-import com.contactcrawler.client.RestTemplateService;
-import com.contactcrawler.client.WebClientService;
+import com.contactcrawler.client.FetchStrategy;
+import com.contactcrawler.client.FetchedPage;
+import com.contactcrawler.client.ResponseValidatorCache;
+import com.contactcrawler.frontier.HostPolitenessScheduler;
+import com.contactcrawler.frontier.PersistentUrlFrontier;
+import com.contactcrawler.frontier.VisitedUrlSet;
 import com.contactcrawler.model.CrawlJob;
-import com.contactcrawler.model.Organization;
-import com.contactcrawler.repository.OrganizationRepository;
 import com.contactcrawler.util.ContactParser;
-import com.contactcrawler.util.LinkExtractor;
+import com.contactcrawler.util.KeywordMatcher;
+import com.contactcrawler.util.PageAnalyzer;
 import com.contactcrawler.util.TracingUtil;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
@@ -16,12 +18,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
@@ -34,25 +44,25 @@ public class CrawlerService {
     private ExecutorService executorService;
     
     @Autowired
-    private WebClientService webClientService;
+    private FetchStrategy fetchStrategy;
     
     @Autowired
-    private RestTemplateService restTemplateService;
+    private ResponseValidatorCache responseValidatorCache;
     
     @Autowired
-    private FeignHtmlClient feignHtmlClient;
+    private OrganizationPersistenceService organizationPersistenceService;
     
     @Autowired
-    private OrganizationRepository organizationRepository;
+    private ReactiveCrawlEngine reactiveCrawlEngine;
     
     @Autowired
-    private Timer parsingTimer;
+    private CrawlJobRegistry jobRegistry;
     
     @Autowired
-    private Timer htmlFetchTimer;
+    private Timer parsingTimer;
     
     @Autowired
-    private Timer databaseSaveTimer;
+    private Timer htmlFetchTimer;
     
     @Autowired
     private Counter parsingSuccessCounter;
@@ -60,232 +70,648 @@ public class CrawlerService {
     @Autowired
     private Counter parsingErrorCounter;
     
-    @Autowired
-    private Counter databaseRecordsCounter;
-    
     @Autowired
     private Counter pagesCrawledCounter;
     
     @Autowired
     private Counter urlsVisitedCounter;
     
+    @Autowired
+    private Counter pagesUnchangedCounter;
+    
     @Autowired
     private TracingUtil tracingUtil;
     
+    @Autowired
+    private KeywordMatcher addressKeywordMatcher;
+    
     @Value("${crawler.max.depth:3}")
     private int maxDepth;
     
     @Value("${crawler.max.pages:200}")
     private int maxPages;
     
-    private final ConcurrentHashMap<String, CrawlJob> activeJobs = new ConcurrentHashMap<>();
+    @Value("${crawler.engine:blocking}")
+    private String crawlerEngine;
+    
+    @Value("${crawler.workers.per.job:5}")
+    private int workersPerJob;
+    
+    @Value("${crawler.politeness.delay.ms:500}")
+    private long politenessDelayMs;
+    
+    @Value("${crawler.politeness.host.delays:}")
+    private String politenessHostDelays;
+    
+    @Value("${crawler.executor.mode:platform}")
+    private String executorMode;
+    
+    @Value("${crawler.virtual.max.concurrency:1000}")
+    private int virtualMaxConcurrency;
+    
+    @Value("${crawler.frontier.dir:./data/frontier}")
+    private String frontierDir;
+    
+    @Value("${crawler.frontier.memory.capacity:10000}")
+    private int frontierMemoryCapacity;
+    
+    @Value("${crawler.frontier.segment.size.mb:16}")
+    private int frontierSegmentSizeMb;
+    
+    @Value("${crawler.frontier.checkpoint.interval:50}")
+    private int frontierCheckpointInterval;
+    
+    @Value("${crawler.frontier.resume.on.startup:true}")
+    private boolean frontierResumeOnStartup;
+    
+    private Map<String, Long> hostDelays;
+    
+    private Semaphore fetchPermits;
+    
+    // Blocking-engine jobs whose workers may still run; removed once the job is completed, paused or stopped
+    private final ConcurrentHashMap<String, CrawlContext> contexts = new ConcurrentHashMap<>();
+
+    @javax.annotation.PostConstruct
+    public void init() {
+        this.hostDelays = HostPolitenessScheduler.parseHostDelays(politenessHostDelays);
+        this.fetchPermits = new Semaphore(Math.max(1, virtualMaxConcurrency));
+    }
 
     public CrawlJob startCrawling(Set<String> startUrls) {
         CrawlJob job = new CrawlJob();
         job.setStatus(CrawlJob.JobStatus.RUNNING);
-        activeJobs.put(job.getJobId(), job);
+        jobRegistry.register(job);
+        
+        if ("reactive".equalsIgnoreCase(crawlerEngine)) {
+            reactiveCrawlEngine.crawl(job, startUrls);
+            return job;
+        }
         
         // Reset state for this job
-        ConcurrentHashMap<String, Boolean> jobVisitedUrls = new ConcurrentHashMap<>();
-        BlockingQueue<String> jobUrlQueue = new LinkedBlockingQueue<>();
-        AtomicInteger jobProcessedCount = new AtomicInteger(0);
-        AtomicInteger jobFoundOrganizations = new AtomicInteger(0);
+        CrawlContext context;
+        try {
+            context = new CrawlContext(job, PersistentUrlFrontier.create(
+                frontierDirectory(job.getJobId()), newHostScheduler(), newVisitedUrlSet(),
+                frontierMemoryCapacity, frontierSegmentSizeMb * 1024L * 1024L, frontierCheckpointInterval));
+        } catch (IOException e) {
+            job.setStatus(CrawlJob.JobStatus.FAILED);
+            job.setErrorMessage("Failed to create URL frontier: " + e.getMessage());
+            job.setCompletedAt(java.time.LocalDateTime.now());
+            logger.error("Failed to create URL frontier for job {}: {}", job.getJobId(), e.getMessage(), e);
+            jobRegistry.finish(job);
+            return job;
+        }
         
         // Add start URLs to queue
         for (String url : startUrls) {
-            jobUrlQueue.offer(url);
+            context.frontier.offer(url);
         }
         
-        job.setTotalPages(jobUrlQueue.size());
+        job.setTotalPages(context.frontier.size());
+        checkpoint(context);
         
-        // Start crawling in background with multiple threads
-        for (int i = 0; i < Math.min(startUrls.size(), 5); i++) {
-            executorService.submit(() -> {
-                try {
-                    crawlUrls(job, jobVisitedUrls, jobUrlQueue, jobProcessedCount, jobFoundOrganizations, 0);
-                } catch (Exception e) {
-                    logger.error("Error in crawler thread: {}", e.getMessage(), e);
+        contexts.put(job.getJobId(), context);
+        launch(context);
+        return job;
+    }
+
+    // Stops the job for good: workers stop taking URLs, fetches in flight are interrupted, the frontier is deleted
+    public boolean cancelCrawling(String jobId) {
+        CrawlJob job = jobRegistry.getLive(jobId);
+        if (job == null) {
+            return false;
+        }
+        CrawlContext context = contexts.get(jobId);
+        if (context != null) {
+            synchronized (job) {
+                if (context.finished.get() || (job.getStatus() != CrawlJob.JobStatus.RUNNING
+                        && job.getStatus() != CrawlJob.JobStatus.PAUSED)) {
+                    return false;
                 }
-            });
+                job.setStatus(CrawlJob.JobStatus.CANCELLED);
+            }
+            stop(context);
+            return true;
         }
-        
-        // Monitor job completion
-        executorService.submit(() -> {
+        if (reactiveCrawlEngine.cancel(job)) {
+            return true;
+        }
+        // Paused with nothing running: only the frontier on disk is left
+        synchronized (job) {
+            if (job.getStatus() != CrawlJob.JobStatus.PAUSED) {
+                return false;
+            }
+            job.setStatus(CrawlJob.JobStatus.CANCELLED);
+            job.setCompletedAt(java.time.LocalDateTime.now());
+        }
+        try {
+            PersistentUrlFrontier.deleteDirectory(frontierDirectory(jobId));
+        } catch (IOException e) {
+            logger.warn("Failed to delete frontier of job {}: {}", jobId, e.getMessage());
+        }
+        logger.info("Crawl job {} cancelled while paused", jobId);
+        jobRegistry.finish(job);
+        return true;
+    }
+
+    // Stops the workers but keeps the frontier, so resumeCrawling continues with the URLs still queued.
+    // Only the blocking engine can pause: the reactive engine keeps its queue in memory
+    public boolean pauseCrawling(String jobId) {
+        CrawlContext context = contexts.get(jobId);
+        if (context == null) {
+            return false;
+        }
+        synchronized (context.job) {
+            if (context.finished.get() || context.job.getStatus() != CrawlJob.JobStatus.RUNNING) {
+                return false;
+            }
+            context.job.setStatus(CrawlJob.JobStatus.PAUSED);
+        }
+        stop(context);
+        return true;
+    }
+
+    // Only once the pause has taken effect, i.e. the last page in flight has been handled
+    public boolean resumeCrawling(String jobId) {
+        CrawlJob job = jobRegistry.getLive(jobId);
+        if (job == null) {
+            return false;
+        }
+        CrawlContext context;
+        synchronized (job) {
+            if (job.getStatus() != CrawlJob.JobStatus.PAUSED || contexts.containsKey(jobId)) {
+                return false;
+            }
             try {
-                while (job.getStatus() == CrawlJob.JobStatus.RUNNING) {
-                    Thread.sleep(1000);
-                    job.setProcessedPages(jobProcessedCount.get());
-                    job.setFoundOrganizations(jobFoundOrganizations.get());
-                    
-                    if (jobUrlQueue.isEmpty() && jobProcessedCount.get() >= job.getTotalPages()) {
-                        job.setStatus(CrawlJob.JobStatus.COMPLETED);
-                        job.setCompletedAt(java.time.LocalDateTime.now());
-                        job.setProcessedPages(jobProcessedCount.get());
-                        job.setFoundOrganizations(jobFoundOrganizations.get());
-                        break;
-                    }
-                }
+                context = reopen(job);
             } catch (Exception e) {
-                job.setStatus(CrawlJob.JobStatus.FAILED);
-                job.setErrorMessage(e.getMessage());
-                job.setCompletedAt(java.time.LocalDateTime.now());
-                logger.error("Job monitoring failed: {}", e.getMessage(), e);
+                logger.error("Failed to reopen frontier of crawl job {}: {}", jobId, e.getMessage(), e);
+                return false;
+            }
+            job.setStatus(CrawlJob.JobStatus.RUNNING);
+            contexts.put(jobId, context);
+        }
+        // Recorded as running again, so a restart resumes it
+        checkpoint(context);
+        logger.info("Resuming paused crawl job {} with {} queued URLs", jobId, context.frontier.size());
+        launch(context);
+        return true;
+    }
+
+    // Called after the status changed away from RUNNING
+    private void stop(CrawlContext context) {
+        context.interruptFetches();
+        // Wakes the workers waiting for a URL
+        context.frontier.shutdown();
+        // With nothing in flight nobody else would notice
+        finishIfDone(context);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!frontierResumeOnStartup) {
+            return;
+        }
+        try {
+            for (Path directory : PersistentUrlFrontier.listJobDirectories(Paths.get(frontierDir))) {
+                Properties checkpoint = PersistentUrlFrontier.readCheckpoint(directory);
+                String status = checkpoint.getProperty("job.status");
+                if (CrawlJob.JobStatus.RUNNING.name().equals(status)) {
+                    resumeJob(directory, checkpoint);
+                } else if (CrawlJob.JobStatus.PAUSED.name().equals(status)) {
+                    // Listed again, but waits for a resume request
+                    CrawlJob job = jobFromCheckpoint(directory, checkpoint);
+                    job.setStatus(CrawlJob.JobStatus.PAUSED);
+                    jobRegistry.register(job);
+                }
             }
-        });
+        } catch (IOException e) {
+            logger.error("Failed to scan frontier directory {}: {}", frontierDir, e.getMessage(), e);
+        }
+    }
+
+    private void resumeJob(Path directory, Properties checkpoint) {
+        CrawlJob job = jobFromCheckpoint(directory, checkpoint);
+        job.setStatus(CrawlJob.JobStatus.RUNNING);
         
+        try {
+            CrawlContext context = reopen(job);
+            jobRegistry.register(job);
+            contexts.put(job.getJobId(), context);
+            logger.info("Resuming crawl job {} with {} queued URLs", job.getJobId(), context.frontier.size());
+            launch(context);
+        } catch (Exception e) {
+            logger.error("Failed to resume crawl job {}: {}", job.getJobId(), e.getMessage(), e);
+        }
+    }
+
+    private CrawlJob jobFromCheckpoint(Path directory, Properties checkpoint) {
+        CrawlJob job = new CrawlJob();
+        job.setJobId(checkpoint.getProperty("job.id", directory.getFileName().toString()));
+        job.setCreatedAt(java.time.LocalDateTime.parse(checkpoint.getProperty("job.createdAt")));
+        job.setTotalPages(Integer.parseInt(checkpoint.getProperty("job.totalPages", "0")));
+        job.setProcessedPages(Integer.parseInt(checkpoint.getProperty("job.processedPages", "0")));
+        job.setFoundOrganizations(Integer.parseInt(checkpoint.getProperty("job.foundOrganizations", "0")));
         return job;
     }
 
-    private void crawlUrls(CrawlJob job, 
-                          ConcurrentHashMap<String, Boolean> visitedUrls,
-                          BlockingQueue<String> urlQueue,
-                          AtomicInteger processedCount,
-                          AtomicInteger foundOrganizations,
-                          int currentDepth) {
-        while (currentDepth <= maxDepth && processedCount.get() < maxPages && job.getStatus() == CrawlJob.JobStatus.RUNNING) {
-            String url = urlQueue.poll();
-            if (url == null) {
+    // Opens the job's frontier where it was left and continues the counters from the job
+    private CrawlContext reopen(CrawlJob job) throws IOException {
+        CrawlContext context = new CrawlContext(job, PersistentUrlFrontier.resume(
+            frontierDirectory(job.getJobId()), newHostScheduler(), newVisitedUrlSet(),
+            frontierMemoryCapacity, frontierSegmentSizeMb * 1024L * 1024L, frontierCheckpointInterval));
+        context.processedCount.set(job.getProcessedPages());
+        context.foundOrganizations.set(job.getFoundOrganizations());
+        return context;
+    }
+
+    private void launch(CrawlContext context) {
+        if (context.frontier.isFinished()) {
+            // Nothing to fetch (no valid start URL, or everything was done before a restart)
+            finishIfDone(context);
+            return;
+        }
+        
+        if (isVirtualThreadMode()) {
+            // One dispatcher hands every URL to its own virtual thread, bounded by fetchPermits
+            executorService.submit(() -> {
                 try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+                    dispatchUrls(context, 0);
+                } catch (Exception e) {
+                    logger.error("Error in crawler dispatcher: {}", e.getMessage(), e);
+                    fail(context, e);
                 }
-                continue;
+            });
+        } else {
+            // Start crawling in background with multiple threads; each worker picks whichever host is ready.
+            // There is no monitor: the worker that finishes the last URL completes the job
+            for (int i = 0; i < Math.max(1, workersPerJob); i++) {
+                executorService.submit(() -> {
+                    try {
+                        crawlUrls(context, 0);
+                    } catch (Exception e) {
+                        logger.error("Error in crawler thread: {}", e.getMessage(), e);
+                        fail(context, e);
+                    }
+                });
+            }
+        }
+    }
+
+    // Blocks in the frontier until a URL is ready; returns once the job is over and the frontier shut down
+    private void crawlUrls(CrawlContext context, int currentDepth) {
+        while (currentDepth <= maxDepth && context.isRunning()) {
+            String url;
+            try {
+                url = context.frontier.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (url == null || !claimUrl(context, url)) {
+                break;
             }
+            processUrl(context, url, currentDepth);
+        }
+    }
 
-            if (visitedUrls.containsKey(url)) {
-                continue;
+    private void dispatchUrls(CrawlContext context, int currentDepth) {
+        while (currentDepth <= maxDepth && context.isRunning()) {
+            String url;
+            try {
+                url = context.frontier.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (url == null || !claimUrl(context, url)) {
+                break;
             }
+            try {
+                fetchPermits.acquire();
+            } catch (InterruptedException e) {
+                context.frontier.release(url, false);
+                context.inFlight.decrementAndGet();
+                Thread.currentThread().interrupt();
+                break;
+            }
+            executorService.submit(() -> {
+                try {
+                    processUrl(context, url, currentDepth);
+                } finally {
+                    fetchPermits.release();
+                }
+            });
+        }
+    }
 
-            visitedUrls.put(url, true);
-            processedCount.incrementAndGet();
-            pagesCrawledCounter.increment();
-            urlsVisitedCounter.increment();
+    // URLs are deduplicated when they enter the frontier, so every claimed URL is fetched. Counted in flight
+    // before the page limit and the status are checked, so the job cannot complete or pause between them
+    private boolean claimUrl(CrawlContext context, String url) {
+        context.inFlight.incrementAndGet();
+        if (!context.isRunning()) {
+            context.frontier.release(url, false);
+            context.inFlight.decrementAndGet();
+            finishIfDone(context);
+            return false;
+        }
+        int claimed = context.processedCount.getAndUpdate(count -> count < maxPages ? count + 1 : count);
+        if (claimed >= maxPages) {
+            context.frontier.release(url, false);
+            context.inFlight.decrementAndGet();
+            finishIfDone(context);
+            return false;
+        }
+        context.job.setProcessedPages(claimed + 1);
+        pagesCrawledCounter.increment();
+        urlsVisitedCounter.increment();
+        return true;
+    }
 
+    private void processUrl(CrawlContext context, String url, int currentDepth) {
+        boolean handled = false;
+        // Set when the page yielded an organization: the page is only done once the writer has committed it
+        CompletableFuture<Void> saved = null;
+        try {
+            ResponseValidatorCache.Validators cached = responseValidatorCache.get(url);
+            if (!context.beginFetch()) {
+                return;
+            }
+            FetchedPage page;
             try {
-                // Trace HTML fetch with fallback chain
-                String html = tracingUtil.trace("download_webpage_content", () -> 
-                    htmlFetchTimer.recordCallable(() -> {
-                        String content = webClientService.fetchHtml(url).block();
-                        
-                        // Fallback to RestTemplate if WebClient fails
-                        if (content == null || content.isEmpty()) {
-                            content = restTemplateService.fetchHtml(url);
-                        }
-                        
-                        // Fallback to Feign if RestTemplate fails
-                        if (content == null || content.isEmpty()) {
-                            try {
-                                content = feignHtmlClient.fetchHtml(url);
-                            } catch (Exception e) {
-                                logger.debug("Feign client failed for URL: {}", url, e);
-                            }
-                        }
-                        
-                        return content != null ? content : "";
-                    })
+                // Trace HTML fetch; FetchStrategy picks the client and fails fast on hosts that keep failing
+                page = tracingUtil.trace("download_webpage_content", () -> 
+                    htmlFetchTimer.recordCallable(() -> fetchStrategy.fetch(url, cached))
                 );
+            } finally {
+                context.endFetch();
+            }
 
-                if (html != null && !html.isEmpty()) {
-                    // Trace parsing
-                    ContactParser.ContactData contactData = tracingUtil.trace("extract_contact_information", () -> 
-                        parsingTimer.recordCallable(() -> 
-                            ContactParser.extractContacts(html, url)
-                        )
-                    );
+            if (responseValidatorCache.isUnchanged(cached, page)) {
+                // Unchanged since the last crawl: skip parsing and persistence, follow the recorded links
+                pagesUnchangedCounter.increment();
+                if (cached != null) {
+                    offerLinks(context, cached.getLinks(), currentDepth);
+                }
+            } else if (page.isOk()) {
+                // Parse once, straight from the response bytes, and extract contacts and links from the same DOM
+                PageAnalyzer.PageAnalysis analysis = tracingUtil.trace("analyze_page_content", () -> 
+                    parsingTimer.recordCallable(() -> 
+                        PageAnalyzer.analyze(page.getBody(), page.getCharset(), url, addressKeywordMatcher)
+                    )
+                );
+                ContactParser.ContactData contactData = analysis.getContacts();
+                
+                // Save organization if contacts found
+                if (analysis.hasContacts()) {
                     
-                    // Save organization if contacts found
-                    if (!contactData.getEmails().isEmpty() || 
-                        !contactData.getPhones().isEmpty() || 
-                        !contactData.getAddresses().isEmpty()) {
-                        
-                        parsingSuccessCounter.increment();
-                        
-                        tracingUtil.trace("persist_organization_data", () -> {
-                            Organization org = new Organization();
-                            org.setName(contactData.getOrganizationName() != null ? 
-                                       contactData.getOrganizationName() : 
-                                       extractDomainName(url));
-                            org.setWebsite(url);
-                            org.setSourceUrl(url);
-                            org.setEmails(contactData.getEmails());
-                            org.setPhones(contactData.getPhones());
-                            org.setAddresses(contactData.getAddresses());
-                            org.setDescription(contactData.getDescription());
-                            
-                            saveOrganizationIfNew(org);
-                            foundOrganizations.incrementAndGet();
-                        });
-                    } else {
-                        parsingErrorCounter.increment();
-                    }
+                    parsingSuccessCounter.increment();
                     
-                    // Trace link extraction
-                    Set<String> links = tracingUtil.trace("discover_page_links", () -> 
-                        LinkExtractor.extractLinks(html, url)
+                    saved = tracingUtil.trace("persist_organization_data", () -> 
+                        organizationPersistenceService.enqueue(
+                            organizationPersistenceService.buildOrganization(contactData, url))
                     );
-                    
-                    // Extract links for next depth level
-                    if (currentDepth < maxDepth) {
-                        for (String link : links) {
-                            if (!visitedUrls.containsKey(link) && urlQueue.size() < maxPages) {
-                                urlQueue.offer(link);
-                            }
-                        }
-                        job.setTotalPages(Math.max(job.getTotalPages(), urlQueue.size() + processedCount.get()));
-                    }
                 } else {
                     parsingErrorCounter.increment();
-                    logger.warn("Empty HTML content retrieved for URL: {}", url);
                 }
                 
-                // Rate limiting
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+                offerLinks(context, analysis.getLinks(), currentDepth);
+                ResponseValidatorCache.Validators validators = responseValidatorCache.validatorsOf(page, analysis.getLinks());
+                if (saved == null) {
+                    responseValidatorCache.record(url, validators);
+                } else {
+                    // Recorded only once the organization is stored, or the next crawl would skip the page as unchanged
+                    saved = saved.thenRun(() -> {
+                        context.job.setFoundOrganizations(context.foundOrganizations.incrementAndGet());
+                        responseValidatorCache.record(url, validators);
+                    });
                 }
-            } catch (Exception e) {
+            } else if (page.getStatus() == FetchedPage.Status.REJECTED) {
+                logger.info("Skipped non-HTML or oversized response for URL: {}", url);
+            } else {
+                parsingErrorCounter.increment();
+                logger.warn("Empty HTML content retrieved for URL: {}", url);
+            }
+            handled = true;
+        } catch (Exception e) {
+            if (context.isRunning()) {
                 parsingErrorCounter.increment();
                 logger.warn("Error crawling URL: {} - {}", url, e.getMessage(), e);
+            } else {
+                logger.debug("Stopped crawling URL {} for job {}", url, context.job.getJobId());
+            }
+        } finally {
+            if (!handled && !context.isRunning()) {
+                // Cut short by cancel or pause: the URL stays unvisited in the frontier and is fetched on resume
+                context.job.setProcessedPages(context.processedCount.decrementAndGet());
+                context.frontier.release(url, false);
+                leaveFlight(context);
+            } else {
+                // Host becomes ready again only after its politeness delay
+                context.frontier.release(url, true);
+                if (saved == null) {
+                    completeUrl(context, url);
+                } else {
+                    // Stays in flight until the writer is done, so neither completion nor a pause overtakes the save.
+                    // Runs on the writer thread
+                    saved.whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            // Still completed so the job can finish; without validators the next crawl parses it again
+                            logger.warn("Organization from {} was not saved: {}", url, error.getMessage());
+                        }
+                        completeUrl(context, url);
+                    });
+                }
             }
         }
     }
 
-    @Transactional
-    private void saveOrganizationIfNew(Organization org) {
-        databaseSaveTimer.record(() -> {
-            Optional<Organization> existing = organizationRepository.findByPhone(
-                org.getPhones().isEmpty() ? "" : org.getPhones().iterator().next()
-            );
-            if (existing.isEmpty() || !existing.get().getWebsite().equals(org.getWebsite())) {
-                organizationRepository.save(org);
-                databaseRecordsCounter.increment();
-                logger.info("Saved organization: {}", org.getName());
+    // Marks the URL visited in the frontier, which a restart then does not fetch again
+    private void completeUrl(CrawlContext context, String url) {
+        try {
+            context.frontier.complete(url);
+            if (context.frontier.isCheckpointDue()) {
+                checkpoint(context);
             }
-        });
+        } catch (Exception e) {
+            logger.error("Failed to record crawled URL {}: {}", url, e.getMessage(), e);
+            fail(context, e);
+        }
+        leaveFlight(context);
+    }
+
+    private void leaveFlight(CrawlContext context) {
+        context.inFlight.decrementAndGet();
+        finishIfDone(context);
     }
 
-    private String extractDomainName(String url) {
+    // Called whenever a URL leaves flight. A running job is done once nothing is in flight and either the
+    // frontier has no URL left (queued or in flight) or the page limit is used up; a cancelled or paused one
+    // as soon as nothing is in flight
+    private void finishIfDone(CrawlContext context) {
+        if (context.inFlight.get() > 0) {
+            return;
+        }
+        CrawlJob job = context.job;
+        CrawlJob.JobStatus status;
+        // Under the job's lock, so a concurrent cancel or pause either happens before or is refused
+        synchronized (job) {
+            status = job.getStatus();
+            if (status == CrawlJob.JobStatus.RUNNING
+                    && !context.frontier.isFinished() && context.processedCount.get() < maxPages) {
+                return;
+            }
+            if (!context.finished.compareAndSet(false, true)) {
+                return;
+            }
+            job.setProcessedPages(context.processedCount.get());
+            job.setFoundOrganizations(context.foundOrganizations.get());
+            if (status == CrawlJob.JobStatus.RUNNING) {
+                status = CrawlJob.JobStatus.COMPLETED;
+                job.setStatus(status);
+            }
+            if (status != CrawlJob.JobStatus.PAUSED) {
+                job.setCompletedAt(java.time.LocalDateTime.now());
+            }
+            contexts.remove(job.getJobId(), context);
+        }
+        // Wakes the workers still waiting for a URL, so they give their threads back
+        context.frontier.shutdown();
         try {
-            java.net.URL urlObj = new java.net.URL(url);
-            String host = urlObj.getHost();
-            if (host.startsWith("www.")) {
-                host = host.substring(4);
+            if (status == CrawlJob.JobStatus.PAUSED) {
+                // Recorded as paused, so a restart does not resume it on its own
+                checkpoint(context);
+                context.frontier.close();
+            } else {
+                // A finished or cancelled job has nothing left to resume
+                context.frontier.delete();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close frontier of job {}: {}", job.getJobId(), e.getMessage());
+        }
+        logger.info("Crawl job {} {}: {} pages, {} organizations", job.getJobId(),
+            status.name().toLowerCase(java.util.Locale.ROOT), job.getProcessedPages(), job.getFoundOrganizations());
+        if (status != CrawlJob.JobStatus.PAUSED) {
+            jobRegistry.finish(job);
+        }
+    }
+
+    // The frontier is kept, but the checkpoint records the failure, so the job is not resumed
+    private void fail(CrawlContext context, Exception e) {
+        CrawlJob job = context.job;
+        synchronized (job) {
+            if (!context.finished.compareAndSet(false, true)) {
+                return;
             }
-            return host;
+            job.setStatus(CrawlJob.JobStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            job.setCompletedAt(java.time.LocalDateTime.now());
+            contexts.remove(job.getJobId(), context);
+        }
+        checkpoint(context);
+        context.frontier.shutdown();
+        jobRegistry.finish(job);
+    }
+
+    // Extract links for next depth level
+    private void offerLinks(CrawlContext context, Collection<String> links, int currentDepth) {
+        if (currentDepth >= maxDepth) {
+            return;
+        }
+        for (String link : links) {
+            if (context.frontier.size() < maxPages) {
+                context.frontier.offer(link);
+            }
+        }
+        context.job.setTotalPages(Math.max(context.job.getTotalPages(), 
+                                           context.frontier.size() + context.processedCount.get()));
+    }
+
+    private void checkpoint(CrawlContext context) {
+        CrawlJob job = context.job;
+        Properties state = new Properties();
+        state.setProperty("job.id", job.getJobId());
+        state.setProperty("job.status", job.getStatus().name());
+        state.setProperty("job.createdAt", job.getCreatedAt().toString());
+        state.setProperty("job.totalPages", String.valueOf(job.getTotalPages()));
+        state.setProperty("job.processedPages", String.valueOf(context.processedCount.get()));
+        state.setProperty("job.foundOrganizations", String.valueOf(context.foundOrganizations.get()));
+        try {
+            context.frontier.checkpoint(state);
         } catch (Exception e) {
-            return "Unknown";
+            logger.warn("Failed to checkpoint job {}: {}", job.getJobId(), e.getMessage());
         }
     }
 
+    private HostPolitenessScheduler newHostScheduler() {
+        return new HostPolitenessScheduler(politenessDelayMs, hostDelays);
+    }
+
+    private VisitedUrlSet newVisitedUrlSet() {
+        // Only ever added to, so a Bloom filter in front would save nothing
+        return new VisitedUrlSet(Math.max(maxPages, frontierMemoryCapacity), false);
+    }
+
+    private Path frontierDirectory(String jobId) {
+        return Paths.get(frontierDir, jobId);
+    }
+
+    private boolean isVirtualThreadMode() {
+        return "virtual".equalsIgnoreCase(executorMode);
+    }
+
+    // Also finds finished jobs, from memory for a while and then from the job history
     public CrawlJob getJobStatus(String jobId) {
-        return activeJobs.get(jobId);
+        return jobRegistry.get(jobId);
     }
 
-    public ConcurrentHashMap<String, CrawlJob> getActiveJobs() {
-        return activeJobs;
+    // Running and paused jobs only
+    public Map<String, CrawlJob> getActiveJobs() {
+        return jobRegistry.getLiveJobs();
+    }
+
+    // Per-job crawl state shared by the workers of one job
+    private static class CrawlContext {
+        private final CrawlJob job;
+        private final PersistentUrlFrontier frontier;
+        private final AtomicInteger processedCount = new AtomicInteger(0);
+        private final AtomicInteger foundOrganizations = new AtomicInteger(0);
+        // URLs taken from the frontier whose processing has not finished yet
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        // Set by whichever thread completes, pauses, cancels or fails the job, so that happens once
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+        // Threads inside a fetch, interrupted on cancel or pause. Only these are interrupted: an interrupt
+        // during frontier file I/O would close its channels
+        private final Set<Thread> fetchingThreads = new HashSet<>();
+
+        CrawlContext(CrawlJob job, PersistentUrlFrontier frontier) {
+            this.job = job;
+            this.frontier = frontier;
+        }
+
+        boolean isRunning() {
+            return job.getStatus() == CrawlJob.JobStatus.RUNNING;
+        }
+
+        // false once the job was stopped, the page is then not fetched
+        synchronized boolean beginFetch() {
+            if (!isRunning()) {
+                return false;
+            }
+            fetchingThreads.add(Thread.currentThread());
+            return true;
+        }
+
+        synchronized void endFetch() {
+            fetchingThreads.remove(Thread.currentThread());
+            if (!isRunning()) {
+                // Clears an interrupt from interruptFetches() that arrived after the fetch returned
+                Thread.interrupted();
+            }
+        }
+
+        synchronized void interruptFetches() {
+            fetchingThreads.forEach(Thread::interrupt);
+        }
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.repository.OrganizationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams every stored organization (optionally only search matches) as
+ * NDJSON or CSV. Rows come from a forward-only cursor in id order and are
+ * written in batches: the phones, emails and addresses of a batch are read
+ * with one query per collection, then the batch is written and flushed.
+ * Only one batch is held at a time, so the heap stays flat however many
+ * rows are exported.
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+    private static final String[] CSV_HEADER =
+        {"id", "name", "website", "phones", "emails", "addresses", "sourceUrl", "crawledAt", "description"};
+
+    // Joins the values of a collection inside one CSV cell
+    private static final String CSV_VALUE_SEPARATOR = "; ";
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crawler.export.fetch.size:1000}")
+    private int fetchSize;
+
+    @Value("${crawler.export.batch.size:500}")
+    private int batchSize;
+
+    private Counter exportedRowsCounter;
+
+    public enum Format {
+        NDJSON, CSV;
+
+        // null for an unknown name
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        this.exportedRowsCounter = Counter.builder("contact.data.export.rows")
+                .description("Organizations written by the streaming export")
+                .register(meterRegistry);
+    }
+
+    // Writes the export to out without closing it. The cursor needs the transaction for the whole export
+    @Transactional(readOnly = true)
+    public long export(String search, Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long exported = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        SequenceWriter json = null;
+        if (format == Format.NDJSON) {
+            json = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(writer);
+        } else {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+
+        try (Stream<Organization> rows = organizationRepository.streamAll(search, fetchSize)) {
+            Iterator<Organization> iterator = rows.iterator();
+            List<Organization> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    for (Organization org : organizationRepository.loadContacts(batch)) {
+                        if (json != null) {
+                            json.write(org);
+                        } else {
+                            writeCsvRow(writer, csvValues(org));
+                        }
+                    }
+                    exported += batch.size();
+                    exportedRowsCounter.increment(batch.size());
+                    batch.clear();
+                    if (json != null) {
+                        json.flush();
+                    }
+                    writer.flush();
+                }
+            }
+        }
+        if (json != null) {
+            json.flush();
+            if (exported > 0) {
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} organizations as {} in {} ms", exported, format, System.currentTimeMillis() - started);
+        return exported;
+    }
+
+    private static String[] csvValues(Organization org) {
+        return new String[] {
+            String.valueOf(org.getId()),
+            org.getName(),
+            org.getWebsite(),
+            String.join(CSV_VALUE_SEPARATOR, org.getPhones()),
+            String.join(CSV_VALUE_SEPARATOR, org.getEmails()),
+            String.join(CSV_VALUE_SEPARATOR, org.getAddresses()),
+            org.getSourceUrl(),
+            org.getCrawledAt() != null ? org.getCrawledAt().toString() : null,
+            org.getDescription()
+        };
+    }
+
+    // RFC 4180: fields with a separator, quote or line break are quoted, quotes inside are doubled
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
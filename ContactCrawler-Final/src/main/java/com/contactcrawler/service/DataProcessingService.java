@@ -2,17 +2,23 @@ package com.contactcrawler.service;
 
 import com.contactcrawler.model.Organization;
 import com.contactcrawler.repository.OrganizationRepository;
+import com.contactcrawler.repository.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class DataProcessingService {
@@ -20,59 +26,89 @@ public class DataProcessingService {
     @Autowired
     private OrganizationRepository organizationRepository;
     
+    @Autowired
+    private OrganizationSearchIndex searchIndex;
+    
+    @Autowired
+    private DataQueryCache dataQueryCache;
+    
     @Autowired
     @Qualifier("dataProcessingForkJoinPool")
     private ForkJoinPool forkJoinPool;
 
+    private static final int ID_CHUNK_SIZE = 500;
+
+    // Plain name order of processWithForkJoinPool; unlike comparator("name", true) it does not accept null names
+    public static final Comparator<Organization> NAME_ORDER = Comparator.comparing(Organization::getName);
+
+    // One page of the listing behind /api/data/answer and /api/data/companies. A search is answered by the
+    // index, which also picks the page, so only that page is read from the database. Either way the page is
+    // detached with its contacts loaded, so it can be cached and serialized without a session
+    public List<Organization> findPage(String search, PageCursor.SortField sortField, boolean ascending,
+                                       PageCursor after, int offset, int limit) {
+        List<Object> key = Arrays.asList("page", normalizedSearch(search), sortField, ascending,
+                after != null ? after.encode() : null, offset, limit);
+        return dataQueryCache.get(key, () -> {
+            List<OrganizationSearchIndex.Entry> matches = indexedMatches(search);
+            return matches == null
+                    ? organizationRepository.findPage(search, sortField, ascending, after, offset, limit)
+                    : loadInOrder(searchIndex.page(matches, sortField, ascending, after, offset, limit));
+        });
+    }
+
+    public long countMatching(String search) {
+        return dataQueryCache.get(Arrays.asList("count", normalizedSearch(search)), () -> {
+            List<OrganizationSearchIndex.Entry> matches = indexedMatches(search);
+            return matches != null ? matches.size() : organizationRepository.countMatching(search);
+        });
+    }
+
+    // Searches ignore case and a blank term means no filter, so such queries share one cache key
+    private static String normalizedSearch(String search) {
+        return search == null || search.trim().isEmpty() ? "" : search.toLowerCase(Locale.ROOT);
+    }
+
     public List<Organization> processAndSortOrganizations(String searchTerm, String sortBy, boolean ascending) {
-        List<Organization> allOrganizations = organizationRepository.findAll();
-        
-        Stream<Organization> stream = allOrganizations.parallelStream();
-        
-        // Filter by search term if provided
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            String search = searchTerm.toLowerCase();
-            stream = stream.filter(org -> 
-                (org.getName() != null && org.getName().toLowerCase().contains(search)) ||
-                (org.getWebsite() != null && org.getWebsite().toLowerCase().contains(search)) ||
-                org.getPhones().stream().anyMatch(p -> p.contains(search)) ||
-                org.getEmails().stream().anyMatch(e -> e.toLowerCase().contains(search)) ||
-                org.getAddresses().stream().anyMatch(a -> a.toLowerCase().contains(search))
-            );
-        }
-        
-        // Sort
-        Comparator<Organization> comparator = getComparator(sortBy);
-        if (!ascending) {
-            comparator = comparator.reversed();
-        }
-        stream = stream.sorted(comparator);
+        List<Organization> allOrganizations = loadCandidates(searchTerm);
         
-        return stream.collect(Collectors.toList());
+        return allOrganizations.parallelStream()
+                .filter(matchesSearch(searchTerm))
+                .sorted(comparator(sortBy, ascending))
+                .collect(Collectors.toList());
     }
 
     public List<Organization> processWithForkJoinPool(String searchTerm) {
-        List<Organization> allOrganizations = organizationRepository.findAll();
+        List<Organization> allOrganizations = loadCandidates(searchTerm);
         
         return forkJoinPool.submit(() -> 
             allOrganizations.parallelStream()
-                .filter(org -> {
-                    if (searchTerm == null || searchTerm.trim().isEmpty()) {
-                        return true;
-                    }
-                    String search = searchTerm.toLowerCase();
-                    return (org.getName() != null && org.getName().toLowerCase().contains(search)) ||
-                           (org.getWebsite() != null && org.getWebsite().toLowerCase().contains(search)) ||
-                           org.getPhones().stream().anyMatch(p -> p.contains(search)) ||
-                           org.getEmails().stream().anyMatch(e -> e.toLowerCase().contains(search)) ||
-                           org.getAddresses().stream().anyMatch(a -> a.toLowerCase().contains(search));
-                })
-                .sorted(Comparator.comparing(Organization::getName))
+                .filter(matchesSearch(searchTerm))
+                .sorted(NAME_ORDER)
                 .collect(Collectors.toList())
         ).join();
     }
 
-    private Comparator<Organization> getComparator(String sortBy) {
+    // Case-insensitive substring match over name, website, phones, emails and addresses; blank matches everything.
+    // Public so DataProcessingBenchmark measures the same predicate and comparators
+    public static Predicate<Organization> matchesSearch(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return org -> true;
+        }
+        String search = searchTerm.toLowerCase();
+        return org ->
+            (org.getName() != null && org.getName().toLowerCase().contains(search)) ||
+            (org.getWebsite() != null && org.getWebsite().toLowerCase().contains(search)) ||
+            org.getPhones().stream().anyMatch(p -> p.contains(search)) ||
+            org.getEmails().stream().anyMatch(e -> e.toLowerCase().contains(search)) ||
+            org.getAddresses().stream().anyMatch(a -> a.toLowerCase().contains(search));
+    }
+
+    public static Comparator<Organization> comparator(String sortBy, boolean ascending) {
+        Comparator<Organization> comparator = getComparator(sortBy);
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    private static Comparator<Organization> getComparator(String sortBy) {
         if (sortBy == null || sortBy.isEmpty()) {
             return Comparator.comparing(Organization::getName, Comparator.nullsLast(String::compareTo));
         }
@@ -96,4 +132,45 @@ public class DataProcessingService {
         }
         return organizationRepository.searchOrganizations(search, pageable);
     }
+
+    // With the search index only the matching organizations are loaded; the filter still runs over them,
+    // so results do not depend on whether the index is enabled. Contacts are loaded up front, as the filter
+    // reads them on pool threads where lazy loading would be one query per organization, outside any session
+    private List<Organization> loadCandidates(String searchTerm) {
+        List<OrganizationSearchIndex.Entry> matches = indexedMatches(searchTerm);
+        if (matches == null) {
+            return organizationRepository.findAllWithContacts();
+        }
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (OrganizationSearchIndex.Entry match : matches) {
+            ids.add(match.getId());
+        }
+        return loadInOrder(ids);
+    }
+
+    // Matches from the search index, or null when there is no search term or no index
+    private List<OrganizationSearchIndex.Entry> indexedMatches(String search) {
+        if (search == null || search.trim().isEmpty() || !searchIndex.isEnabled()) {
+            return null;
+        }
+        return searchIndex.search(search);
+    }
+
+    // Loads by primary key in chunks, keeping the order of ids; an IN list of thousands of ids is slower than several
+    private List<Organization> loadInOrder(List<Long> ids) {
+        Map<Long, Organization> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            for (Organization org : organizationRepository.findWithContactsByIdIn(ids.subList(from, Math.min(ids.size(), from + ID_CHUNK_SIZE)))) {
+                byId.put(org.getId(), org);
+            }
+        }
+        List<Organization> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Organization org = byId.get(id);
+            if (org != null) {
+                ordered.add(org);
+            }
+        }
+        return ordered;
+    }
 }
@@ -0,0 +1,117 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Results of the data API's listing queries, so repeating a query does not
+ * touch the index or the database. Keys are the normalized query; every
+ * result remembers the data version of
+ * {@link OrganizationPersistenceService} it was computed at and is only
+ * served while no organization has been stored since. The cache is bounded
+ * by the number of rows it holds and by the age of its entries.
+ */
+@Service
+public class DataQueryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataQueryCache.class);
+
+    @Autowired
+    private OrganizationPersistenceService organizationPersistenceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crawler.data.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${crawler.data.cache.max.rows:20000}")
+    private long maxRows;
+
+    @Value("${crawler.data.cache.ttl.ms:60000}")
+    private long ttlMs;
+
+    private ExpiringLruCache<List<Object>, Result> results;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private volatile long lastSeenVersion;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            logger.info("Data query cache disabled");
+            return;
+        }
+        this.results = new ExpiringLruCache<>(maxRows, ttlMs, TimeUnit.MILLISECONDS, DataQueryCache::weigh);
+        this.hits = Counter.builder("contact.data.cache.gets")
+                .tag("result", "hit")
+                .description("Listing queries answered from the data query cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("contact.data.cache.gets")
+                .tag("result", "miss")
+                .description("Listing queries computed because no current result was cached")
+                .register(meterRegistry);
+        Gauge.builder("contact.data.cache.size", results, ExpiringLruCache::size)
+                .description("Query results held in the data query cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("contact.data.cache.evictions", results, ExpiringLruCache::evictionCount)
+                .description("Query results dropped from the data query cache for age or size")
+                .register(meterRegistry);
+    }
+
+    // The cached result for the key, or the loader's, which is cached unless data changed meanwhile.
+    // Callers must not modify what is returned, it is shared between requests
+    @SuppressWarnings("unchecked")
+    public <T> T get(List<Object> key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Read before loading, so a result that may include newer rows is never taken for an older version
+        long version = organizationPersistenceService.getDataVersion();
+        if (version != lastSeenVersion) {
+            // Everything cached so far is stale, free it at once rather than waiting for eviction
+            results.clear();
+            lastSeenVersion = version;
+        }
+        Result cached = results.get(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return (T) cached.value;
+        }
+        misses.increment();
+        T value = loader.get();
+        results.put(key, new Result(version, value));
+        return value;
+    }
+
+    private static int weigh(Result result) {
+        return result.value instanceof Collection ? ((Collection<?>) result.value).size() : 1;
+    }
+
+    private static class Result {
+        final long version;
+        final Object value;
+
+        Result(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
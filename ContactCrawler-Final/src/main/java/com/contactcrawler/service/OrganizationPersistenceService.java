@@ -0,0 +1,246 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.repository.OrganizationRepository;
+import com.contactcrawler.util.ContactParser;
+import com.contactcrawler.util.FingerprintMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence for crawled organizations. Crawler threads only
+ * enqueue records; a single writer thread drains the queue and stores each
+ * batch in one transaction so Hibernate can group the inserts into JDBC
+ * batches. The queue lives only in memory, so callers must not treat a page
+ * as done (visited, validators recorded) before the future returned by
+ * {@link #enqueue} has completed.
+ */
+@Service
+public class OrganizationPersistenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationPersistenceService.class);
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ContactDedupIndex contactDedupIndex;
+
+    @Autowired
+    private OrganizationSearchIndex organizationSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Timer databaseSaveTimer;
+
+    @Autowired
+    private Counter databaseRecordsCounter;
+
+    @Value("${crawler.persistence.queue.capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${crawler.persistence.batch.size:100}")
+    private int batchSize;
+
+    @Value("${crawler.persistence.flush.interval.ms:500}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<PendingOrganization> pendingOrganizations;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    // Goes up after every committed organization is indexed; query results computed before are stale
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.pendingOrganizations = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("contact.database.write.queue.size", pendingOrganizations, Collection::size)
+                .description("Organizations waiting to be written to the database")
+                .register(meterRegistry);
+
+        this.running = true;
+        this.writerThread = new Thread(this::writeLoop, "organization-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public Organization buildOrganization(ContactParser.ContactData contactData, String url) {
+        Organization org = new Organization();
+        org.setName(contactData.getOrganizationName() != null ?
+                   contactData.getOrganizationName() :
+                   extractDomainName(url));
+        org.setWebsite(url);
+        org.setSourceUrl(url);
+        org.setEmails(contactData.getEmails());
+        org.setPhones(contactData.getPhones());
+        org.setAddresses(contactData.getAddresses());
+        org.setDescription(contactData.getDescription());
+        return org;
+    }
+
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    // Hands the organization to the writer; blocks only while the write queue is full. The future completes
+    // on the writer thread once the organization is committed (or skipped as a duplicate of a stored one),
+    // and completes exceptionally if it could not be saved
+    public CompletableFuture<Void> enqueue(Organization org) throws InterruptedException {
+        PendingOrganization pending = new PendingOrganization(org);
+        pendingOrganizations.put(pending);
+        return pending.saved;
+    }
+
+    private void writeLoop() {
+        List<PendingOrganization> batch = new ArrayList<>(batchSize);
+        while (running || !pendingOrganizations.isEmpty()) {
+            try {
+                PendingOrganization first = pendingOrganizations.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pendingOrganizations.drainTo(batch, batchSize - 1);
+                flushBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Organization writer failed: {}", e.getMessage(), e);
+                batch.forEach(pending -> pending.saved.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        // Only left behind if the writer was interrupted; nobody will save these any more
+        List<PendingOrganization> abandoned = new ArrayList<>();
+        pendingOrganizations.drainTo(abandoned);
+        IllegalStateException stopped = new IllegalStateException("Organization writer stopped");
+        abandoned.forEach(pending -> pending.saved.completeExceptionally(stopped));
+    }
+
+    private void flushBatch(List<PendingOrganization> batch) {
+        List<Organization> organizations = new ArrayList<>(batch.size());
+        batch.forEach(pending -> organizations.add(pending.organization));
+        List<Organization> saved;
+        try {
+            saved = databaseSaveTimer.record(() -> transactionTemplate.execute(status -> saveNew(organizations)));
+        } catch (Exception e) {
+            // One bad record must not drop the whole batch, so retry them one by one
+            logger.warn("Batch save of {} organizations failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingOrganization pending : batch) {
+                Organization org = pending.organization;
+                try {
+                    org.setId(null);
+                    transactionTemplate.execute(status -> saveNew(List.of(org))).forEach(this::registerSaved);
+                } catch (Exception single) {
+                    logger.warn("Failed to save organization {}: {}", org.getName(), single.getMessage());
+                    pending.saved.completeExceptionally(single);
+                    continue;
+                }
+                pending.saved.complete(null);
+            }
+            return;
+        }
+        saved.forEach(this::registerSaved);
+        logger.info("Saved {} of {} organizations in batch", saved.size(), batch.size());
+        batch.forEach(pending -> pending.saved.complete(null));
+    }
+
+    // Only called once the transaction that wrote the organization has committed
+    private void registerSaved(Organization org) {
+        databaseRecordsCounter.increment();
+        contactDedupIndex.register(org);
+        organizationSearchIndex.register(org);
+        dataVersion.incrementAndGet();
+    }
+
+    // Duplicates are checked against the committed index plus the keys of earlier records in this batch
+    private List<Organization> saveNew(List<Organization> batch) {
+        List<Organization> toSave = new ArrayList<>(batch.size());
+        Set<Long> batchKeys = new HashSet<>();
+        for (Organization org : batch) {
+            if (contactDedupIndex.findDuplicate(org) != FingerprintMap.NO_VALUE) {
+                continue;
+            }
+            long[] keys = contactDedupIndex.keysOf(org);
+            boolean duplicateInBatch = false;
+            for (long key : keys) {
+                duplicateInBatch |= key != 0 && batchKeys.contains(key);
+            }
+            if (duplicateInBatch) {
+                continue;
+            }
+            for (long key : keys) {
+                batchKeys.add(key);
+            }
+            toSave.add(org);
+        }
+        organizationRepository.saveAll(toSave);
+        return toSave;
+    }
+
+    private static class PendingOrganization {
+        final Organization organization;
+        final CompletableFuture<Void> saved = new CompletableFuture<>();
+
+        PendingOrganization(Organization organization) {
+            this.organization = organization;
+        }
+    }
+
+    private String extractDomainName(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return "Unknown";
+            }
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            return host;
+        } catch (Exception e) {
+            return "Unknown";
+        }
+    }
+}
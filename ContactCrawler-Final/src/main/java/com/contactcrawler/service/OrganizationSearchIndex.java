@@ -0,0 +1,202 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.repository.OrganizationRepository;
+import com.contactcrawler.repository.PageCursor;
+import com.contactcrawler.util.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Trigram index over the searchable fields of stored organizations (name,
+ * website, phones, emails, addresses), so substring search does not scan
+ * the tables. Each document carries the organization's sort keys, so a page
+ * of matches is chosen here in the same order the database would return it
+ * and only that page is loaded. Warmed from the database at startup and
+ * extended after every committed insert, like {@link ContactDedupIndex};
+ * organizations are never updated or deleted, so the index only grows.
+ */
+@Service
+public class OrganizationSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationSearchIndex.class);
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crawler.search.index.enabled:true}")
+    private boolean enabled;
+
+    private TrigramIndex<Entry> index;
+
+    private Timer searchTimer;
+
+    public static final class Entry {
+        private final long id;
+        private final String name;
+        private final String website;
+        private final LocalDateTime crawledAt;
+
+        Entry(long id, String name, String website, LocalDateTime crawledAt) {
+            this.id = id;
+            this.name = name;
+            this.website = website;
+            this.crawledAt = crawledAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getWebsite() {
+            return website;
+        }
+
+        LocalDateTime getCrawledAt() {
+            return crawledAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            logger.info("Organization search index disabled, searches go to the database");
+            return;
+        }
+        this.index = new TrigramIndex<>();
+        Gauge.builder("contact.search.index.documents", index, TrigramIndex::size)
+                .description("Organizations held in the in-memory search index")
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder("contact.search.index.query.time")
+                .description("Time to find all organizations matching a search term in the trigram index")
+                .register(meterRegistry);
+
+        long started = System.currentTimeMillis();
+        // In id order, so documents are numbered like the rows they were inserted as
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        for (Object[] row : organizationRepository.findAllSearchKeys()) {
+            Long id = (Long) row[0];
+            entries.put(id, new Entry(id, (String) row[1], (String) row[2], (LocalDateTime) row[3]));
+        }
+        Map<Long, List<String>> collections = new HashMap<>();
+        for (List<Object[]> rows : List.of(organizationRepository.findAllPhoneKeys(),
+                organizationRepository.findAllEmailKeys(), organizationRepository.findAllAddressKeys())) {
+            for (Object[] row : rows) {
+                collections.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        for (Entry entry : entries.values()) {
+            List<String> fields = new ArrayList<>();
+            fields.add(entry.name);
+            fields.add(entry.website);
+            fields.addAll(collections.getOrDefault(entry.id, List.of()));
+            index.add(entry, fields);
+        }
+        logger.info("Organization search index warmed with {} organizations, {} trigrams ({} KB) in {} ms",
+                index.size(), index.trigramCount(), index.memoryBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Organizations with a field containing the term, ignoring case, in ascending id order
+    public List<Entry> search(String term) {
+        return searchTimer.record(() -> index.search(term));
+    }
+
+    // Ids of one page of matches: skips the rows up to the cursor (or offset rows without one) and keeps
+    // the next limit in OrganizationRepositoryImpl's order, holding at most offset + limit in a heap
+    public List<Long> page(List<Entry> matches, PageCursor.SortField sortField, boolean ascending,
+                           PageCursor after, int offset, int limit) {
+        Comparator<Entry> order = order(sortField, ascending);
+        Entry last = after == null ? null : probe(after);
+        int keep = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        PriorityQueue<Entry> top = new PriorityQueue<>(order.reversed());
+        for (Entry entry : matches) {
+            if (last != null && order.compare(entry, last) <= 0) {
+                continue;
+            }
+            if (top.size() < keep) {
+                top.add(entry);
+            } else if (order.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Entry> sorted = new ArrayList<>(top);
+        sorted.sort(order);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = Math.min(offset, sorted.size()); i < sorted.size(); i++) {
+            ids.add(sorted.get(i).id);
+        }
+        return ids;
+    }
+
+    // Call only once the organization is committed, so it has an id and cannot be rolled back
+    public void register(Organization org) {
+        if (!enabled || org.getId() == null) {
+            return;
+        }
+        List<String> fields = new ArrayList<>();
+        fields.add(org.getName());
+        fields.add(org.getWebsite());
+        fields.addAll(org.getPhones());
+        fields.addAll(org.getEmails());
+        fields.addAll(org.getAddresses());
+        index.add(new Entry(org.getId(), org.getName(), org.getWebsite(), org.getCrawledAt()), fields);
+    }
+
+    // Sort value ascending with missing values last, then id; descending is the exact reverse
+    private static Comparator<Entry> order(PageCursor.SortField sortField, boolean ascending) {
+        Comparator<Entry> byValue;
+        switch (sortField) {
+            case WEBSITE:
+                byValue = Comparator.comparing(Entry::getWebsite, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case CRAWLED_AT:
+                byValue = Comparator.comparing(Entry::getCrawledAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            default:
+                byValue = Comparator.comparing(Entry::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+        }
+        Comparator<Entry> order = byValue.thenComparingLong(Entry::getId);
+        return ascending ? order : order.reversed();
+    }
+
+    // Stands for the last row of the previous page; only its id and sort value are compared
+    private static Entry probe(PageCursor cursor) {
+        Object value = cursor.getLastValue();
+        switch (cursor.getSortField()) {
+            case WEBSITE:
+                return new Entry(cursor.getLastId(), null, (String) value, null);
+            case CRAWLED_AT:
+                return new Entry(cursor.getLastId(), null, null, (LocalDateTime) value);
+            default:
+                return new Entry(cursor.getLastId(), (String) value, null, null);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.contactcrawler.service;
+
+import com.contactcrawler.client.FetchStrategy;
+import com.contactcrawler.client.FetchedPage;
+import com.contactcrawler.client.ResponseValidatorCache;
+import com.contactcrawler.frontier.HostPolitenessScheduler;
+import com.contactcrawler.frontier.VisitedUrlSet;
+import com.contactcrawler.model.CrawlJob;
+import com.contactcrawler.model.Organization;
+import com.contactcrawler.util.KeywordMatcher;
+import com.contactcrawler.util.PageAnalyzer;
+import com.contactcrawler.util.TracingUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking crawl engine: frontier -> fetch -> parse -> persist as one
+ * Reactor pipeline. Fetches run on the WebClient event loop with at most
+ * {@code crawler.reactive.max.concurrency} requests in flight; parsing runs on
+ * the parallel scheduler and JPA writes on the bounded elastic scheduler.
+ */
+@Service
+public class ReactiveCrawlEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCrawlEngine.class);
+
+    @Autowired
+    private FetchStrategy fetchStrategy;
+
+    @Autowired
+    private ResponseValidatorCache responseValidatorCache;
+
+    @Autowired
+    private OrganizationPersistenceService organizationPersistenceService;
+
+    @Autowired
+    private CrawlJobRegistry jobRegistry;
+
+    @Autowired
+    private Timer parsingTimer;
+
+    @Autowired
+    private Timer htmlFetchTimer;
+
+    @Autowired
+    private Counter parsingSuccessCounter;
+
+    @Autowired
+    private Counter parsingErrorCounter;
+
+    @Autowired
+    private Counter pagesCrawledCounter;
+
+    @Autowired
+    private Counter urlsVisitedCounter;
+
+    @Autowired
+    private Counter pagesUnchangedCounter;
+
+    @Autowired
+    private TracingUtil tracingUtil;
+
+    @Autowired
+    private KeywordMatcher addressKeywordMatcher;
+
+    @Value("${crawler.max.pages:200}")
+    private int maxPages;
+
+    @Value("${crawler.reactive.max.concurrency:256}")
+    private int maxConcurrency;
+
+    @Value("${crawler.politeness.delay.ms:500}")
+    private long politenessDelayMs;
+
+    @Value("${crawler.politeness.host.delays:}")
+    private String politenessHostDelays;
+
+    // Subscriptions of the jobs still crawling, so they can be cancelled
+    private final Map<String, Disposable> subscriptions = new ConcurrentHashMap<>();
+
+    public void crawl(CrawlJob job, Set<String> startUrls) {
+        ReactiveCrawl crawl = new ReactiveCrawl(job);
+
+        Disposable subscription = crawl.frontier.asFlux()
+                .flatMap(url -> processPage(crawl, url)
+                        .doFinally(signal -> crawl.finishUrl()), maxConcurrency)
+                .subscribe(
+                        ignored -> { },
+                        error -> {
+                            subscriptions.remove(job.getJobId());
+                            job.setStatus(CrawlJob.JobStatus.FAILED);
+                            job.setErrorMessage(error.getMessage());
+                            job.setCompletedAt(LocalDateTime.now());
+                            logger.error("Reactive crawl failed: {}", error.getMessage(), error);
+                            recordFinished(job);
+                        },
+                        () -> {
+                            subscriptions.remove(job.getJobId());
+                            synchronized (job) {
+                                if (job.getStatus() == CrawlJob.JobStatus.RUNNING) {
+                                    job.setStatus(CrawlJob.JobStatus.COMPLETED);
+                                }
+                                job.setCompletedAt(LocalDateTime.now());
+                            }
+                            recordFinished(job);
+                        });
+        if (!subscription.isDisposed()) {
+            subscriptions.put(job.getJobId(), subscription);
+        }
+
+        for (String url : startUrls) {
+            crawl.enqueue(url);
+        }
+        job.setTotalPages(crawl.enqueued.get());
+        crawl.finishSeeding();
+    }
+
+    // Disposing the pipeline cancels every page in flight, including its WebClient request. There is no
+    // pause: the queue of this engine lives only in the pipeline
+    public boolean cancel(CrawlJob job) {
+        Disposable subscription = subscriptions.get(job.getJobId());
+        if (subscription == null) {
+            return false;
+        }
+        synchronized (job) {
+            if (job.getStatus() != CrawlJob.JobStatus.RUNNING) {
+                return false;
+            }
+            job.setStatus(CrawlJob.JobStatus.CANCELLED);
+            job.setCompletedAt(LocalDateTime.now());
+        }
+        subscriptions.remove(job.getJobId());
+        subscription.dispose();
+        logger.info("Reactive crawl job {} cancelled after {} pages", job.getJobId(), job.getProcessedPages());
+        recordFinished(job);
+        return true;
+    }
+
+    // The history insert is a blocking JPA call, kept off the event loop
+    private void recordFinished(CrawlJob job) {
+        Schedulers.boundedElastic().schedule(() -> jobRegistry.finish(job));
+    }
+
+    private Mono<Void> processPage(ReactiveCrawl crawl, String url) {
+        if (crawl.job.getStatus() != CrawlJob.JobStatus.RUNNING) {
+            return Mono.empty();
+        }
+
+        // The URL was emitted at its booked slot, but may have waited in the buffer for a concurrency slot
+        // while an earlier URL of its host went out late. Then it goes back to wait instead of holding the slot
+        long politenessWait = crawl.politeness.tryAcquire(url);
+        if (politenessWait > 0) {
+            crawl.emitLater(url, politenessWait);
+            return Mono.empty();
+        }
+        ResponseValidatorCache.Validators cached = responseValidatorCache.get(url);
+        Timer.Sample fetchSample = Timer.start();
+
+        return Mono.defer(() -> {
+                    crawl.job.setProcessedPages(crawl.processed.incrementAndGet());
+                    pagesCrawledCounter.increment();
+                    urlsVisitedCounter.increment();
+                    return fetchStrategy.fetchAsync(url, cached);
+                })
+                .doOnNext(page -> fetchSample.stop(htmlFetchTimer))
+                .publishOn(Schedulers.parallel())
+                .flatMap(page -> {
+                    if (responseValidatorCache.isUnchanged(cached, page)) {
+                        // Unchanged since the last crawl: skip parsing and persistence, follow the recorded links
+                        pagesUnchangedCounter.increment();
+                        if (cached != null) {
+                            crawl.enqueueAll(cached.getLinks());
+                        }
+                        return Mono.empty();
+                    }
+                    if (page.getStatus() == FetchedPage.Status.REJECTED) {
+                        logger.info("Skipped non-HTML or oversized response for URL: {}", url);
+                        return Mono.empty();
+                    }
+                    if (!page.isOk()) {
+                        parsingErrorCounter.increment();
+                        logger.warn("Empty HTML content retrieved for URL: {}", url);
+                        return Mono.empty();
+                    }
+                    PageAnalyzer.PageAnalysis analysis = tracingUtil.trace("analyze_page_content", () ->
+                        parsingTimer.recordCallable(() -> PageAnalyzer.analyze(page.getBody(), page.getCharset(), url, addressKeywordMatcher))
+                    );
+                    crawl.enqueueAll(analysis.getLinks());
+                    ResponseValidatorCache.Validators validators =
+                        responseValidatorCache.validatorsOf(page, analysis.getLinks());
+
+                    if (!analysis.hasContacts()) {
+                        parsingErrorCounter.increment();
+                        return recordValidators(url, validators);
+                    }
+                    parsingSuccessCounter.increment();
+                    Organization org = organizationPersistenceService.buildOrganization(analysis.getContacts(), url);
+                    // enqueue() only blocks while the write-behind queue is full. Validators are recorded once the
+                    // organization is committed, or the next crawl would skip the page as unchanged
+                    return Mono.fromCallable(() -> tracingUtil.trace("persist_organization_data", () ->
+                                organizationPersistenceService.enqueue(org)))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(Mono::fromFuture)
+                            .then(Mono.fromRunnable(() -> crawl.job.setFoundOrganizations(crawl.found.incrementAndGet())))
+                            .then(recordValidators(url, validators));
+                })
+                .onErrorResume(e -> {
+                    parsingErrorCounter.increment();
+                    logger.warn("Error crawling URL: {} - {}", url, e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    // record() appends to the validator log, a blocking write kept off the parallel scheduler
+    private Mono<Void> recordValidators(String url, ResponseValidatorCache.Validators validators) {
+        return Mono.<Void>fromRunnable(() -> responseValidatorCache.record(url, validators))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private class ReactiveCrawl {
+        private final CrawlJob job;
+        private final Sinks.Many<String> frontier = Sinks.many().unicast().onBackpressureBuffer();
+        private final VisitedUrlSet seenUrls = new VisitedUrlSet(maxPages, false);
+        private final HostPolitenessScheduler politeness = new HostPolitenessScheduler(
+                politenessDelayMs, HostPolitenessScheduler.parseHostDelays(politenessHostDelays));
+        private final AtomicInteger enqueued = new AtomicInteger(0);
+        private final AtomicInteger processed = new AtomicInteger(0);
+        private final AtomicInteger found = new AtomicInteger(0);
+        // URLs emitted into the frontier but not finished yet, plus one guard held while seeding
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        ReactiveCrawl(CrawlJob job) {
+            this.job = job;
+        }
+
+        void enqueue(String url) {
+            if (enqueued.get() >= maxPages || !seenUrls.add(url)) {
+                return;
+            }
+            if (enqueued.incrementAndGet() > maxPages) {
+                return;
+            }
+            pending.incrementAndGet();
+            // Politeness is applied before the URL reaches the pipeline, so it never holds one of the
+            // maxConcurrency slots while its host is waiting
+            long wait = politeness.reserve(url);
+            if (wait > 0) {
+                schedule(url, wait);
+            } else if (!emit(url)) {
+                enqueued.decrementAndGet();
+            }
+        }
+
+        // Sends a URL that has already been emitted once back in after the wait
+        void emitLater(String url, long waitMs) {
+            pending.incrementAndGet();
+            schedule(url, waitMs);
+        }
+
+        private void schedule(String url, long waitMs) {
+            Schedulers.parallel().schedule(() -> emit(url), waitMs, TimeUnit.MILLISECONDS);
+        }
+
+        // Returns false if the URL could not be emitted; it then counts as finished
+        private boolean emit(String url) {
+            Sinks.EmitResult result;
+            synchronized (frontier) {
+                result = frontier.tryEmitNext(url);
+            }
+            if (result.isFailure()) {
+                // The pipeline is cancelled or terminated, so the URL would never finish and the job never complete
+                logger.debug("Dropped URL {} of job {}: {}", url, job.getJobId(), result);
+                finishUrl();
+                return false;
+            }
+            return true;
+        }
+
+        void enqueueAll(Collection<String> links) {
+            for (String link : links) {
+                enqueue(link);
+            }
+            job.setTotalPages(Math.max(job.getTotalPages(), enqueued.get()));
+        }
+
+        void finishUrl() {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (frontier) {
+                    frontier.tryEmitComplete();
+                }
+            }
+        }
+
+        void finishSeeding() {
+            finishUrl();
+        }
+    }
+}
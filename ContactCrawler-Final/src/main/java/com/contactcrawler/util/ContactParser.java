@@ -6,20 +6,24 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 public class ContactParser {
     
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}"
+    // Russian and English address markers; the crawler uses the crawler.address.keywords bean instead
+    public static final List<String> DEFAULT_ADDRESS_KEYWORDS = List.of(
+        "ул.", "улица", "пр.", "проспект", "д.", "дом", "г.", "город",
+        "street", "avenue", "road", "city"
     );
     
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-        "(\\+?[0-9]{1,3}[-\\s]?)?\\(?[0-9]{1,4}\\)?[-\\s]?[0-9]{1,4}[-\\s]?[0-9]{1,9}"
-    );
+    public static final KeywordMatcher DEFAULT_ADDRESS_MATCHER = new KeywordMatcher(DEFAULT_ADDRESS_KEYWORDS);
 
     public static ContactData extractContacts(String html, String baseUrl) {
+        return extractContacts(html, baseUrl, DEFAULT_ADDRESS_MATCHER);
+    }
+
+    public static ContactData extractContacts(String html, String baseUrl, KeywordMatcher addressKeywords) {
         ContactData data = new ContactData();
         
         if (html == null || html.isEmpty()) {
@@ -27,45 +31,48 @@ public class ContactParser {
         }
 
         try {
-            Document doc = Jsoup.parse(html, baseUrl);
-            
-            // Extract emails
-            String text = doc.text();
-            java.util.regex.Matcher emailMatcher = EMAIL_PATTERN.matcher(text);
-            while (emailMatcher.find()) {
-                String email = emailMatcher.group().toLowerCase().trim();
-                if (email.length() < 50) { // Sanity check
-                    data.getEmails().add(email);
-                }
-            }
+            return extractContacts(Jsoup.parse(html, baseUrl), addressKeywords);
+        } catch (Exception e) {
+            // Log error but continue
+            System.err.println("Error parsing HTML: " + e.getMessage());
+        }
+        
+        return data;
+    }
+
+    public static ContactData extractContacts(Document doc) {
+        return extractContacts(doc, DEFAULT_ADDRESS_MATCHER);
+    }
+
+    public static ContactData extractContacts(Document doc, KeywordMatcher addressKeywords) {
+        ContactData data = new ContactData();
+        
+        if (doc == null) {
+            return data;
+        }
+
+        try {
+            // Extract emails and phones from the page text in one pass
+            ContactScanner.scan(doc.text(), data.getEmails(), data.getPhones());
             
             // Extract emails from href attributes
             Elements emailLinks = doc.select("a[href^=mailto:]");
             for (Element link : emailLinks) {
                 String href = link.attr("href");
                 if (href.startsWith("mailto:")) {
-                    String email = href.substring(7).split("[?]")[0].toLowerCase().trim();
-                    if (EMAIL_PATTERN.matcher(email).matches()) {
+                    String email = stripQuery(href.substring(7)).toLowerCase().trim();
+                    if (ContactScanner.isEmail(email)) {
                         data.getEmails().add(email);
                     }
                 }
             }
             
-            // Extract phones
-            java.util.regex.Matcher phoneMatcher = PHONE_PATTERN.matcher(text);
-            while (phoneMatcher.find()) {
-                String phone = normalizePhone(phoneMatcher.group());
-                if (phone.length() >= 7 && phone.length() <= 20) {
-                    data.getPhones().add(phone);
-                }
-            }
-            
             // Extract phones from href attributes
             Elements phoneLinks = doc.select("a[href^=tel:]");
             for (Element link : phoneLinks) {
                 String href = link.attr("href");
                 if (href.startsWith("tel:")) {
-                    String phone = normalizePhone(href.substring(4).split("[?]")[0]);
+                    String phone = ContactScanner.normalizePhone(stripQuery(href.substring(4)));
                     if (phone.length() >= 7) {
                         data.getPhones().add(phone);
                     }
@@ -77,7 +84,7 @@ public class ContactParser {
             for (Element elem : addressElements) {
                 String address = elem.text().trim();
                 if (address.length() > 10 && address.length() < 500) {
-                    if (containsAddressKeywords(address)) {
+                    if (addressKeywords.containsAny(address)) {
                         data.getAddresses().add(address);
                     }
                 }
@@ -103,18 +110,9 @@ public class ContactParser {
         return data;
     }
 
-    private static String normalizePhone(String phone) {
-        return phone.replaceAll("[^0-9+]", "").trim();
-    }
-
-    private static boolean containsAddressKeywords(String text) {
-        String lower = text.toLowerCase();
-        return lower.contains("ул.") || lower.contains("улица") || 
-               lower.contains("пр.") || lower.contains("проспект") ||
-               lower.contains("д.") || lower.contains("дом") ||
-               lower.contains("г.") || lower.contains("город") ||
-               lower.contains("street") || lower.contains("avenue") ||
-               lower.contains("road") || lower.contains("city");
+    private static String stripQuery(String value) {
+        int query = value.indexOf('?');
+        return query >= 0 ? value.substring(0, query) : value;
     }
 
     private static String extractOrganizationName(String title) {
@@ -0,0 +1,196 @@
+package com.contactcrawler.util;
+
+import java.util.Collection;
+
+/**
+ * Single-pass scanner for emails and phone numbers in page text. It walks the
+ * text once, keeping independent cursors for the two kinds of match, and
+ * reproduces the matches of the former regular expressions
+ * <pre>
+ *   [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}
+ *   (\+?[0-9]{1,3}[-\s]?)?\(?[0-9]{1,4}\)?[-\s]?[0-9]{1,4}[-\s]?[0-9]{1,9}
+ * </pre>
+ * including their leftmost-first, greedy-with-backtracking choices. Phones are
+ * normalized to digits and '+' while matching, and a String is only allocated
+ * for an accepted match.
+ */
+public class ContactScanner {
+
+    private static final int MAX_EMAIL_LENGTH = 50;
+    private static final int MIN_PHONE_LENGTH = 7;
+    private static final int MAX_PHONE_LENGTH = 20;
+    // Longest possible phone match: 1 + 3 + 1 + 1 + 4 + 1 + 1 + 4 + 1 + 9
+    private static final int MAX_PHONE_MATCH = 26;
+
+    public static void scan(String text, Collection<String> emails, Collection<String> phones) {
+        int length = text.length();
+        int emailFrom = 0;
+        int phoneFrom = 0;
+        // Start of the current run of email local-part characters
+        int localRunStart = 0;
+        char[] normalized = new char[MAX_PHONE_MATCH];
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (i >= phoneFrom && (c == '+' || c == '(' || isDigit(c))) {
+                int end = matchPhone(text, i, length);
+                if (end > 0) {
+                    int digits = 0;
+                    for (int k = i; k < end; k++) {
+                        char p = text.charAt(k);
+                        if (p == '+' || isDigit(p)) {
+                            normalized[digits++] = p;
+                        }
+                    }
+                    if (digits >= MIN_PHONE_LENGTH && digits <= MAX_PHONE_LENGTH) {
+                        phones.add(new String(normalized, 0, digits));
+                    }
+                    phoneFrom = end;
+                }
+            }
+
+            if (isLocalChar(c)) {
+                if (i == 0 || !isLocalChar(text.charAt(i - 1))) {
+                    localRunStart = i;
+                }
+            } else if (c == '@' && i >= emailFrom) {
+                int start = Math.max(localRunStart, emailFrom);
+                if (start < i && isLocalChar(text.charAt(i - 1))) {
+                    int end = matchDomain(text, i + 1, length);
+                    if (end > 0) {
+                        if (end - start < MAX_EMAIL_LENGTH) {
+                            emails.add(text.substring(start, end).toLowerCase());
+                        }
+                        emailFrom = end;
+                    }
+                }
+            }
+        }
+    }
+
+    // Whole-string form of the email expression, used for mailto: links
+    public static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            if (!isLocalChar(value.charAt(i))) {
+                return false;
+            }
+        }
+        return matchDomain(value, at + 1, value.length()) == value.length();
+    }
+
+    // Keeps digits and '+', like replaceAll("[^0-9+]", "")
+    public static String normalizePhone(String phone) {
+        StringBuilder result = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c == '+' || isDigit(c)) {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    // [a-zA-Z0-9.-]+\.[a-zA-Z]{2,} from 'from'; returns the end of the match or -1.
+    // The greedy run gives characters back until the last '.' that is followed by two letters.
+    private static int matchDomain(String text, int from, int length) {
+        int runEnd = from;
+        while (runEnd < length && isDomainChar(text.charAt(runEnd))) {
+            runEnd++;
+        }
+        for (int dot = runEnd - 3; dot >= from + 1; dot--) {
+            if (text.charAt(dot) == '.' && isLetter(text.charAt(dot + 1)) && isLetter(text.charAt(dot + 2))) {
+                int end = dot + 3;
+                while (end < runEnd && isLetter(text.charAt(end))) {
+                    end++;
+                }
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    // (\+?[0-9]{1,3}[-\s]?)? followed by the rest of the phone expression, alternatives in regex priority order
+    private static int matchPhone(String text, int start, int length) {
+        int plus = start < length && text.charAt(start) == '+' ? 1 : 0;
+        for (int withPlus = plus; withPlus >= 0; withPlus--) {
+            int digitsStart = start + withPlus;
+            for (int d = digitRun(text, digitsStart, length, 3); d >= 1; d--) {
+                int afterDigits = digitsStart + d;
+                for (int sep = separatorAt(text, afterDigits, length); sep >= 0; sep--) {
+                    int end = matchNumber(text, afterDigits + sep, length);
+                    if (end > 0) {
+                        return end;
+                    }
+                }
+            }
+        }
+        return matchNumber(text, start, length);
+    }
+
+    // \(?[0-9]{1,4}\)?[-\s]?[0-9]{1,4}[-\s]?[0-9]{1,9}
+    private static int matchNumber(String text, int start, int length) {
+        int open = start < length && text.charAt(start) == '(' ? 1 : 0;
+        for (int withOpen = open; withOpen >= 0; withOpen--) {
+            int areaStart = start + withOpen;
+            for (int a = digitRun(text, areaStart, length, 4); a >= 1; a--) {
+                int afterArea = areaStart + a;
+                int close = afterArea < length && text.charAt(afterArea) == ')' ? 1 : 0;
+                for (int withClose = close; withClose >= 0; withClose--) {
+                    int afterClose = afterArea + withClose;
+                    for (int sep1 = separatorAt(text, afterClose, length); sep1 >= 0; sep1--) {
+                        int middleStart = afterClose + sep1;
+                        for (int m = digitRun(text, middleStart, length, 4); m >= 1; m--) {
+                            int afterMiddle = middleStart + m;
+                            for (int sep2 = separatorAt(text, afterMiddle, length); sep2 >= 0; sep2--) {
+                                int lastStart = afterMiddle + sep2;
+                                int last = digitRun(text, lastStart, length, 9);
+                                if (last >= 1) {
+                                    return lastStart + last;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int digitRun(String text, int from, int length, int max) {
+        int run = 0;
+        while (run < max && from + run < length && isDigit(text.charAt(from + run))) {
+            run++;
+        }
+        return run;
+    }
+
+    // 1 if [-\s] matches at index, else 0
+    private static int separatorAt(String text, int index, int length) {
+        if (index >= length) {
+            return 0;
+        }
+        char c = text.charAt(index);
+        return c == '-' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r' ? 1 : 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isDomainChar(c) || c == '_' || c == '%' || c == '+';
+    }
+}
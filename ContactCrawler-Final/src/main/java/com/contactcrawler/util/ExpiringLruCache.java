@@ -0,0 +1,158 @@
+package com.contactcrawler.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Size- and time-bounded cache: entries expire a fixed time after they were
+ * written, or after they were last read if the cache expires after access,
+ * and once the total weight of the entries exceeds the limit the least
+ * recently used ones are evicted. All operations take one lock, which is fine
+ * for the small number of entries it is meant for.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<V> weigher;
+    private final boolean expireAfterAccess;
+    // Access order: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long evictions;
+
+    public ExpiringLruCache(long maxWeight, long ttl, TimeUnit unit, ToIntFunction<V> weigher) {
+        this(maxWeight, ttl, unit, weigher, false);
+    }
+
+    public ExpiringLruCache(long maxWeight, long ttl, TimeUnit unit, ToIntFunction<V> weigher,
+                            boolean expireAfterAccess) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.weigher = weigher;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.stampedAt >= ttlNanos) {
+            entries.remove(key);
+            weight -= entry.weight;
+            evictions++;
+            return null;
+        }
+        if (expireAfterAccess) {
+            entry.stampedAt = now;
+        }
+        return entry.value;
+    }
+
+    // Returns the live value for the key, storing the one the factory creates if there is none
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    // A value heavier than the whole cache is not stored
+    public void put(K key, V value) {
+        put(key, value, 0, TimeUnit.NANOSECONDS);
+    }
+
+    // Stores the value as if it had been written the given time ago, so it expires that much sooner
+    public synchronized void put(K key, V value, long age, TimeUnit unit) {
+        int valueWeight = Math.max(1, weigher.applyAsInt(value));
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        long writtenAt = System.nanoTime() - Math.max(0, unit.toNanos(age));
+        Entry<V> previous = entries.put(key, new Entry<>(value, valueWeight, writtenAt));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += valueWeight;
+        evictExpiredAndOverweight();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    // Least recently used first; expired entries are skipped. The action must not use the cache
+    public synchronized void forEach(BiConsumer<K, V> action) {
+        long now = System.nanoTime();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (now - entry.getValue().stampedAt < ttlNanos) {
+                action.accept(entry.getKey(), entry.getValue().value);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    // Drops every expired entry now, for caches that are not read or written often enough to do it on the way
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (now - entry.stampedAt >= ttlNanos) {
+                iterator.remove();
+                weight -= entry.weight;
+                evictions++;
+            }
+        }
+    }
+
+    // Entries dropped for age or weight; clear() does not count
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    private void evictExpiredAndOverweight() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next().getValue();
+            if (weight <= maxWeight && now - entry.stampedAt < ttlNanos) {
+                // Expired entries further on are dropped when read or when they become eldest
+                break;
+            }
+            iterator.remove();
+            weight -= entry.weight;
+            evictions++;
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final int weight;
+        // Write time, or last read time when expiring after access
+        long stampedAt;
+
+        Entry(V value, int weight, long stampedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.stampedAt = stampedAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.contactcrawler.util;
+
+/**
+ * Concurrent map from 64-bit fingerprints to non-negative {@code long} values,
+ * laid out like {@link FingerprintSet}: lock-striped open-addressing tables
+ * with the keys and values in parallel {@code long[]} arrays. Lookups and
+ * inserts do not allocate.
+ */
+public class FingerprintMap extends StripedFingerprintTable {
+
+    public static final long NO_VALUE = ABSENT;
+
+    public FingerprintMap(int expectedSize) {
+        this(expectedSize, 16);
+    }
+
+    public FingerprintMap(int expectedSize, int concurrencyLevel) {
+        super(expectedSize, concurrencyLevel, true);
+    }
+
+    // Returns the value already mapped to the fingerprint, or NO_VALUE if this call added it
+    public long putIfAbsent(long fingerprint, long value) {
+        return insert(fingerprint, value);
+    }
+
+    public long get(long fingerprint) {
+        return lookup(fingerprint);
+    }
+}
@@ -0,0 +1,26 @@
+package com.contactcrawler.util;
+
+/**
+ * Concurrent set of 64-bit fingerprints stored in lock-striped open-addressing
+ * {@code long[]} tables with linear probing. An entry costs 8 bytes of table
+ * space, about 10-16 bytes per element at the load factors used here, and
+ * neither lookups nor inserts allocate.
+ */
+public class FingerprintSet extends StripedFingerprintTable {
+
+    public FingerprintSet(int expectedSize) {
+        this(expectedSize, 64);
+    }
+
+    public FingerprintSet(int expectedSize, int concurrencyLevel) {
+        super(expectedSize, concurrencyLevel, false);
+    }
+
+    public boolean add(long fingerprint) {
+        return insert(fingerprint, 0) == ABSENT;
+    }
+
+    public boolean contains(long fingerprint) {
+        return lookup(fingerprint) != ABSENT;
+    }
+}
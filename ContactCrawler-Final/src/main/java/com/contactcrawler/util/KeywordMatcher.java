@@ -0,0 +1,146 @@
+package com.contactcrawler.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Case-insensitive multi-keyword matcher (Aho-Corasick compiled to a DFA).
+ * Built once from a keyword list; {@link #containsAny} then reads the text a
+ * single time with one table lookup per character, without lowercasing a
+ * copy, so the cost does not grow with the number of keywords.
+ */
+public class KeywordMatcher {
+
+    // Characters that occur in no keyword share class 0
+    private final int[] charClass;
+    private final int classCount;
+    // transitions[state * classCount + class] -> next state
+    private final int[] transitions;
+    private final boolean[] accepting;
+    private final List<String> keywords;
+
+    public KeywordMatcher(Collection<String> keywords) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                normalized.add(keyword.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        this.keywords = List.copyOf(normalized);
+
+        int maxChar = 0;
+        for (String keyword : this.keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                maxChar = Math.max(maxChar, keyword.charAt(i));
+            }
+        }
+        int[] lowerClass = new int[maxChar + 1];
+        int classes = 1;
+        for (String keyword : this.keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (lowerClass[c] == 0) {
+                    lowerClass[c] = classes++;
+                }
+            }
+        }
+        // Case folding is done here, once: every char whose lower case occurs in a keyword gets that char's class
+        int tableSize = 0;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char lower = Character.toLowerCase((char) c);
+            if (lower < lowerClass.length && lowerClass[lower] != 0) {
+                tableSize = c + 1;
+            }
+        }
+        this.charClass = new int[tableSize];
+        for (int c = 0; c < tableSize; c++) {
+            char lower = Character.toLowerCase((char) c);
+            charClass[c] = lower < lowerClass.length ? lowerClass[lower] : 0;
+        }
+        this.classCount = classes;
+
+        // Trie with -1 for missing edges
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> output = new ArrayList<>();
+        trie.add(newRow());
+        output.add(false);
+        for (String keyword : this.keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int cls = lowerClass[keyword.charAt(i)];
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow());
+                    output.add(false);
+                }
+                state = trie.get(state)[cls];
+            }
+            output.set(state, true);
+        }
+
+        // Breadth-first failure links, folded straight into a complete transition table
+        int states = trie.size();
+        this.transitions = new int[states * classCount];
+        this.accepting = new boolean[states];
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int cls = 0; cls < classCount; cls++) {
+            int next = trie.get(0)[cls];
+            if (next > 0) {
+                fail[next] = 0;
+                queue[tail++] = next;
+                transitions[cls] = next;
+            } else {
+                transitions[cls] = 0;
+            }
+        }
+        accepting[0] = output.get(0);
+        while (head < tail) {
+            int state = queue[head++];
+            accepting[state] = output.get(state) || accepting[fail[state]];
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = trie.get(state)[cls];
+                if (next > 0) {
+                    fail[next] = transitions[fail[state] * classCount + cls];
+                    queue[tail++] = next;
+                    transitions[state * classCount + cls] = next;
+                } else {
+                    transitions[state * classCount + cls] = transitions[fail[state] * classCount + cls];
+                }
+            }
+        }
+    }
+
+    public boolean containsAny(CharSequence text) {
+        if (keywords.isEmpty() || text == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int cls = c < charClass.length ? charClass[c] : 0;
+            state = transitions[state * classCount + cls];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
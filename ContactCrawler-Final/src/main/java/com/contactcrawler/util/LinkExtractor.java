@@ -5,12 +5,15 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
 
 public class LinkExtractor {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
     
     public static Set<String> extractLinks(String html, String baseUrl) {
         Set<String> links = new HashSet<>();
@@ -20,31 +23,30 @@ public class LinkExtractor {
         }
 
         try {
-            Document doc = Jsoup.parse(html, baseUrl);
+            return extractLinks(Jsoup.parse(html, baseUrl));
+        } catch (Exception e) {
+            System.err.println("Error extracting links: " + e.getMessage());
+        }
+        
+        return links;
+    }
+
+    public static Set<String> extractLinks(Document doc) {
+        Set<String> links = new HashSet<>();
+        
+        if (doc == null) {
+            return links;
+        }
+
+        try {
             Elements anchorTags = doc.select("a[href]");
             
             for (Element anchor : anchorTags) {
                 String href = anchor.attr("abs:href");
                 if (href != null && !href.isEmpty()) {
-                    try {
-                        URL url = new URL(href);
-                        // Only HTTP/HTTPS links
-                        if ("http".equals(url.getProtocol()) || "https".equals(url.getProtocol())) {
-                            // Remove fragments
-                            String cleanUrl = url.getProtocol() + "://" + url.getHost();
-                            if (url.getPort() != -1 && url.getPort() != 80 && url.getPort() != 443) {
-                                cleanUrl += ":" + url.getPort();
-                            }
-                            if (url.getPath() != null && !url.getPath().isEmpty()) {
-                                cleanUrl += url.getPath();
-                            }
-                            if (url.getQuery() != null && !url.getQuery().isEmpty()) {
-                                cleanUrl += "?" + url.getQuery();
-                            }
-                            links.add(cleanUrl);
-                        }
-                    } catch (MalformedURLException e) {
-                        // Skip invalid URLs
+                    String link = httpLink(href);
+                    if (link != null) {
+                        links.add(link);
                     }
                 }
             }
@@ -54,4 +56,70 @@ public class LinkExtractor {
         
         return links;
     }
+
+    // Scheme, host, non-default port, path and query of an HTTP/HTTPS link; null for anything else
+    private static String httpLink(String href) {
+        URI uri;
+        try {
+            uri = new URI(encodeIllegalChars(href));
+        } catch (URISyntaxException e) {
+            // Skip invalid URLs
+            return null;
+        }
+        String scheme = uri.getScheme();
+        if (!("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) || uri.getHost() == null) {
+            return null;
+        }
+        // Remove fragments
+        StringBuilder link = new StringBuilder(href.length())
+            .append(scheme.toLowerCase()).append("://").append(uri.getHost());
+        if (uri.getPort() != -1 && uri.getPort() != 80 && uri.getPort() != 443) {
+            link.append(':').append(uri.getPort());
+        }
+        if (uri.getRawPath() != null) {
+            link.append(uri.getRawPath());
+        }
+        if (uri.getRawQuery() != null && !uri.getRawQuery().isEmpty()) {
+            link.append('?').append(uri.getRawQuery());
+        }
+        return link.toString();
+    }
+
+    // Jsoup leaves spaces, non-ASCII characters and stray '%' in abs:href; URI only takes them percent-encoded.
+    // Brackets are only legal around an IPv6 host
+    private static String encodeIllegalChars(String href) {
+        int authority = href.indexOf("://");
+        int pathStart = authority < 0 ? 0 : href.indexOf('/', authority + 3);
+        if (pathStart < 0) {
+            pathStart = href.length();
+        }
+        StringBuilder encoded = null;
+        for (int i = 0; i < href.length(); i++) {
+            char c = href.charAt(i);
+            boolean legal = c > ' ' && c < 0x7f && "\"<>\\^`{|}".indexOf(c) < 0
+                && (c != '%' || isEscape(href, i))
+                && (i < pathStart || (c != '[' && c != ']'));
+            if (legal) {
+                if (encoded != null) {
+                    encoded.append(c);
+                }
+                continue;
+            }
+            if (encoded == null) {
+                encoded = new StringBuilder(href.length() + 16).append(href, 0, i);
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < href.length() ? i + 2 : i + 1;
+            for (byte b : href.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                encoded.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+            i = end - 1;
+        }
+        return encoded != null ? encoded.toString() : href;
+    }
+
+    private static boolean isEscape(String href, int percent) {
+        return percent + 2 < href.length()
+            && Character.digit(href.charAt(percent + 1), 16) >= 0
+            && Character.digit(href.charAt(percent + 2), 16) >= 0;
+    }
 }
@@ -0,0 +1,88 @@
+package com.contactcrawler.util;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PageAnalyzer {
+
+    // Parses the page once and runs contact and link extraction over the same DOM
+    public static PageAnalysis analyze(String html, String baseUrl) {
+        return analyze(html, baseUrl, ContactParser.DEFAULT_ADDRESS_MATCHER);
+    }
+
+    public static PageAnalysis analyze(String html, String baseUrl, KeywordMatcher addressKeywords) {
+        if (html == null || html.isEmpty()) {
+            return new PageAnalysis(new ContactParser.ContactData(), new HashSet<>());
+        }
+
+        Document doc;
+        try {
+            doc = Jsoup.parse(html, baseUrl);
+        } catch (Exception e) {
+            System.err.println("Error parsing HTML: " + e.getMessage());
+            return new PageAnalysis(new ContactParser.ContactData(), new HashSet<>());
+        }
+
+        return analyze(doc, addressKeywords);
+    }
+
+    public static PageAnalysis analyze(byte[] body, String charset, String baseUrl) {
+        return analyze(body, charset, baseUrl, ContactParser.DEFAULT_ADDRESS_MATCHER);
+    }
+
+    // Decodes straight from the response bytes; a null charset lets Jsoup take it from a BOM or <meta>
+    public static PageAnalysis analyze(byte[] body, String charset, String baseUrl, KeywordMatcher addressKeywords) {
+        if (body == null || body.length == 0) {
+            return new PageAnalysis(new ContactParser.ContactData(), new HashSet<>());
+        }
+
+        Document doc;
+        try {
+            doc = Jsoup.parse(new ByteArrayInputStream(body), charset, baseUrl);
+        } catch (Exception e) {
+            System.err.println("Error parsing HTML: " + e.getMessage());
+            return new PageAnalysis(new ContactParser.ContactData(), new HashSet<>());
+        }
+
+        return analyze(doc, addressKeywords);
+    }
+
+    public static PageAnalysis analyze(Document doc) {
+        return analyze(doc, ContactParser.DEFAULT_ADDRESS_MATCHER);
+    }
+
+    public static PageAnalysis analyze(Document doc, KeywordMatcher addressKeywords) {
+        return new PageAnalysis(
+            ContactParser.extractContacts(doc, addressKeywords),
+            LinkExtractor.extractLinks(doc)
+        );
+    }
+
+    public static class PageAnalysis {
+        private final ContactParser.ContactData contacts;
+        private final Set<String> links;
+
+        public PageAnalysis(ContactParser.ContactData contacts, Set<String> links) {
+            this.contacts = contacts;
+            this.links = links;
+        }
+
+        public ContactParser.ContactData getContacts() {
+            return contacts;
+        }
+
+        public Set<String> getLinks() {
+            return links;
+        }
+
+        public boolean hasContacts() {
+            return !contacts.getEmails().isEmpty() ||
+                   !contacts.getPhones().isEmpty() ||
+                   !contacts.getAddresses().isEmpty();
+        }
+    }
+}
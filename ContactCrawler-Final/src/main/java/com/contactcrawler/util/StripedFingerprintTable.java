@@ -0,0 +1,140 @@
+package com.contactcrawler.util;
+
+/**
+ * Shared storage of {@link FingerprintSet} and {@link FingerprintMap}: 64-bit
+ * fingerprints in lock-striped open-addressing {@code long[]} tables with
+ * linear probing, optionally with a parallel {@code long[]} of values.
+ * Neither lookups nor inserts allocate.
+ */
+abstract class StripedFingerprintTable {
+
+    // Returned by insert and lookup when the fingerprint was not in the table
+    static final long ABSENT = -1L;
+
+    private static final long EMPTY = 0L;
+    // Stands in for a real fingerprint of 0, which would collide with EMPTY
+    private static final long ZERO_FINGERPRINT = 0x9e3779b97f4a7c15L;
+    private static final float MAX_LOAD = 0.75f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    StripedFingerprintTable(int expectedSize, int concurrencyLevel, boolean withValues) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+        int perStripe = (int) Math.min(1 << 30, (long) (Math.max(expectedSize, 16) / MAX_LOAD) / stripeCount + 1);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(tableSizeFor(perStripe), withValues);
+        }
+    }
+
+    // Adds the fingerprint with the value unless present. Returns ABSENT if this call
+    // added it, otherwise the stored value (always 0 for a table without values)
+    final long insert(long fingerprint, long value) {
+        long key = fingerprint == EMPTY ? ZERO_FINGERPRINT : fingerprint;
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.insert(key, value);
+        }
+    }
+
+    // Stored value of the fingerprint, or ABSENT
+    final long lookup(long fingerprint) {
+        long key = fingerprint == EMPTY ? ZERO_FINGERPRINT : fingerprint;
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.lookup(key);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    // Approximate heap footprint of the tables in bytes
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += (long) stripe.keys.length * Long.BYTES * (stripe.values == null ? 1 : 2);
+            }
+        }
+        return bytes;
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (key >>> stripeShift)];
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    }
+
+    private static class Stripe {
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        Stripe(int capacity, boolean withValues) {
+            this.keys = new long[capacity];
+            this.values = withValues ? new long[capacity] : null;
+        }
+
+        long insert(long key, long value) {
+            int index = slotFor(keys, key);
+            if (keys[index] == key) {
+                return values == null ? 0 : values[index];
+            }
+            keys[index] = key;
+            if (values != null) {
+                values[index] = value;
+            }
+            size++;
+            if (size > keys.length * MAX_LOAD) {
+                resize();
+            }
+            return ABSENT;
+        }
+
+        long lookup(long key) {
+            int index = slotFor(keys, key);
+            if (keys[index] != key) {
+                return ABSENT;
+            }
+            return values == null ? 0 : values[index];
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length << 1];
+            values = oldValues == null ? null : new long[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int index = slotFor(keys, oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    if (values != null) {
+                        values[index] = oldValues[i];
+                    }
+                }
+            }
+        }
+
+        // Slot holding the key, or the empty slot where it would go
+        private static int slotFor(long[] table, long key) {
+            int mask = table.length - 1;
+            int index = (int) key & mask;
+            while (table[index] != EMPTY && table[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.contactcrawler.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only inverted index for case-insensitive substring search. Every
+ * document (any object, returned as is by {@link #search}) gets a dense
+ * number in insertion order, and every distinct
+ * trigram of its lower-cased fields a posting list of those numbers, stored
+ * as delta-encoded varints with a skip entry every {@value #BLOCK} postings.
+ * <p>
+ * A query term of three or more characters is answered by intersecting the
+ * posting lists of its trigrams, rarest first, probing the longer lists
+ * through their skip entries, and verifying each candidate against the
+ * document's stored text, since sharing all trigrams does not imply
+ * containing the term. Shorter terms have no trigrams and scan the stored
+ * texts. Matches never span two fields of a document.
+ */
+public class TrigramIndex<T> {
+
+    private static final int BLOCK = 64;
+    // Joins the fields of a document; no trigram containing it is indexed
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private Object[] documents = new Object[1024];
+    // Lower-cased fields in UTF-8, for verification
+    private byte[][] documentTexts = new byte[1024][];
+    private int documentCount;
+    private long postingBytes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents are returned by search() in the order they were added
+    public void add(T document, List<String> fields) {
+        String text = normalize(fields);
+        long[] trigrams = distinctTrigrams(text);
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int number = documentCount;
+            if (number == documents.length) {
+                documents = Arrays.copyOf(documents, number * 2);
+                documentTexts = Arrays.copyOf(documentTexts, number * 2);
+            }
+            documents[number] = document;
+            documentTexts[number] = utf8;
+            documentCount++;
+            for (long trigram : trigrams) {
+                PostingList list = postings.computeIfAbsent(trigram, key -> new PostingList());
+                int before = list.size;
+                list.add(number);
+                postingBytes += list.size - before;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // All documents with a field containing term, ignoring case; an empty term matches nothing
+    public List<T> search(String term) {
+        if (term == null || term.isEmpty() || term.indexOf(FIELD_SEPARATOR) >= 0) {
+            return List.of();
+        }
+        String lower = term.toLowerCase(Locale.ROOT);
+        byte[] pattern = lower.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            long[] trigrams = distinctTrigrams(lower);
+            if (trigrams.length == 0) {
+                return scan(pattern);
+            }
+            List<PostingList> lists = new ArrayList<>(trigrams.length);
+            for (long trigram : trigrams) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.count));
+
+            int[] candidates = lists.get(0).decodeAll();
+            int candidateCount = candidates.length;
+            for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+                candidateCount = lists.get(i).retainAll(candidates, candidateCount);
+            }
+
+            List<T> matches = new ArrayList<>(candidateCount);
+            // A three-character term is its own trigram, so every posting is a match
+            boolean verify = lower.length() > 3;
+            for (int i = 0; i < candidateCount; i++) {
+                if (!verify || contains(documentTexts[candidates[i]], pattern)) {
+                    matches.add(document(candidates[i]));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Approximate heap footprint of the posting lists and stored texts in bytes
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = postingBytes + (long) postings.size() * 96 + (long) documents.length * 8;
+            for (int i = 0; i < documentCount; i++) {
+                bytes += documentTexts[i].length + 16;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<T> scan(byte[] pattern) {
+        List<T> matches = new ArrayList<>();
+        for (int number = 0; number < documentCount; number++) {
+            if (contains(documentTexts[number], pattern)) {
+                matches.add(document(number));
+            }
+        }
+        return matches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T document(int number) {
+        return (T) documents[number];
+    }
+
+    private static String normalize(List<String> fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field == null || field.isEmpty()) {
+                continue;
+            }
+            if (text.length() > 0) {
+                text.append(FIELD_SEPARATOR);
+            }
+            text.append(field.replace(FIELD_SEPARATOR, ' ').toLowerCase(Locale.ROOT));
+        }
+        return text.toString();
+    }
+
+    // Three UTF-16 chars packed into the low 48 bits, sorted and without repeats
+    private static long[] distinctTrigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 2 < text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a != FIELD_SEPARATOR && b != FIELD_SEPARATOR && c != FIELD_SEPARATOR) {
+                trigrams[count++] = ((long) a << 32) | ((long) b << 16) | c;
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static boolean contains(byte[] text, byte[] pattern) {
+        int last = text.length - pattern.length;
+        byte first = pattern[0];
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (text[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (text[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ascending document numbers as varint gaps. Block b starts at byte
+     * blockOffsets[b] with the gap to blockFirsts[b], so a block decodes
+     * without reading anything before it.
+     */
+    private static class PostingList {
+        private byte[] data = new byte[8];
+        private int size;
+        private int count;
+        private int last;
+        private int[] blockFirsts = new int[1];
+        private int[] blockOffsets = new int[1];
+
+        void add(int document) {
+            if (count % BLOCK == 0) {
+                int block = count / BLOCK;
+                if (block == blockFirsts.length) {
+                    blockFirsts = Arrays.copyOf(blockFirsts, block * 2);
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                }
+                blockFirsts[block] = document;
+                blockOffsets[block] = size;
+            }
+            int gap = document - last;
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 5));
+            }
+            while ((gap & ~0x7F) != 0) {
+                data[size++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            data[size++] = (byte) gap;
+            last = document;
+            count++;
+        }
+
+        int[] decodeAll() {
+            int[] documents = new int[count];
+            int blocks = (count + BLOCK - 1) / BLOCK;
+            for (int block = 0; block < blocks; block++) {
+                decodeBlock(block, documents, block * BLOCK);
+            }
+            return documents;
+        }
+
+        // Keeps the candidates (ascending, first n) that are in this list; returns how many are left
+        int retainAll(int[] candidates, int n) {
+            int[] buffer = new int[BLOCK];
+            int blocks = (count + BLOCK - 1) / BLOCK;
+            int loadedBlock = -1;
+            int loadedSize = 0;
+            int position = 0;
+            int kept = 0;
+            int block = 0;
+            for (int i = 0; i < n; i++) {
+                int candidate = candidates[i];
+                // Gallop to the last block starting at or before the candidate
+                int step = 1;
+                while (block + step < blocks && blockFirsts[block + step] <= candidate) {
+                    block += step;
+                    step <<= 1;
+                }
+                while (step > 1) {
+                    step >>= 1;
+                    if (block + step < blocks && blockFirsts[block + step] <= candidate) {
+                        block += step;
+                    }
+                }
+                if (blockFirsts[block] > candidate) {
+                    continue;
+                }
+                if (block != loadedBlock) {
+                    loadedSize = decodeBlock(block, buffer, 0);
+                    loadedBlock = block;
+                    position = 0;
+                }
+                while (position < loadedSize && buffer[position] < candidate) {
+                    position++;
+                }
+                if (position < loadedSize && buffer[position] == candidate) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+
+        private int decodeBlock(int block, int[] out, int start) {
+            int n = Math.min(BLOCK, count - block * BLOCK);
+            int offset = blockOffsets[block];
+            // Skip the gap of the first entry, its value is blockFirsts[block]
+            while (data[offset] < 0) {
+                offset++;
+            }
+            offset++;
+            int document = blockFirsts[block];
+            out[start] = document;
+            for (int i = 1; i < n; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[offset++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                document += gap;
+                out[start + i] = document;
+            }
+            return n;
+        }
+    }
+}
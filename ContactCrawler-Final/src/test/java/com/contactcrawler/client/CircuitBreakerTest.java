@@ -0,0 +1,79 @@
+package com.contactcrawler.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWhileOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 10, 0.5, 3, 60_000);
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void opensOnceTheFailureRateOverTheWindowReachesTheThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, 0, 60_000);
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        // Two of three: not enough calls yet
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void failuresThatLeaveTheWindowNoLongerCount() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, 0, 60_000);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.failureRate()).isEqualTo(0.5);
+        // Pushes the first failure out of the window
+        breaker.onSuccess();
+        assertThat(breaker.failureRate()).isEqualTo(0.25);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 10, 0.5, 1, 0);
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void failedProbeOpensAgain() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 10, 0.5, 1, 0);
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void releasedProbeLetsAnotherOneThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 10, 0.5, 1, 0);
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,155 @@
+package com.contactcrawler.frontier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentUrlFrontierTest {
+
+    private static final int MEMORY_CAPACITY = 8;
+    private static final long SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumeAfterCrashReturnsEveryUrlThatWasNotCompleted() throws Exception {
+        PersistentUrlFrontier frontier = create();
+        List<String> urls = urls(100);
+        urls.forEach(frontier::offer);
+
+        Set<String> completed = new HashSet<>(drain(frontier, 30));
+        // Taken but still in flight when the process dies
+        List<String> inFlight = take(frontier, 5);
+        Properties state = new Properties();
+        state.setProperty("jobId", "job-1");
+        frontier.checkpoint(state);
+        // Crash: the frontier is never closed
+
+        PersistentUrlFrontier resumed = resume();
+        assertThat(PersistentUrlFrontier.readCheckpoint(directory).getProperty("jobId")).isEqualTo("job-1");
+        assertThat(resumed.isFinished()).isFalse();
+
+        List<String> remaining = drain(resumed, Integer.MAX_VALUE);
+        Set<String> expected = new HashSet<>(urls);
+        expected.removeAll(completed);
+        assertThat(remaining).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(remaining)).isEqualTo(expected).containsAll(inFlight);
+        assertThat(resumed.isFinished()).isTrue();
+        assertThat(resumed.isEmpty()).isTrue();
+    }
+
+    @Test
+    void resumedFrontierRejectsUrlsItHadAlreadyAccepted() throws Exception {
+        PersistentUrlFrontier frontier = create();
+        List<String> urls = urls(20);
+        urls.forEach(frontier::offer);
+        drain(frontier, 20);
+        frontier.checkpoint(new Properties());
+
+        PersistentUrlFrontier resumed = resume();
+        assertThat(resumed.offer(urls.get(3))).isFalse();
+        assertThat(resumed.offer("http://host0.example/new")).isTrue();
+        assertThat(drain(resumed, Integer.MAX_VALUE)).containsExactly("http://host0.example/new");
+    }
+
+    @Test
+    void resumeReadsEverySegmentAndDropsATornRecord() throws Exception {
+        PersistentUrlFrontier frontier = create();
+        // About three segments of 64 KB
+        List<String> urls = urls(4000);
+        urls.forEach(frontier::offer);
+        List<String> completed = drain(frontier, 10);
+        frontier.checkpoint(new Properties());
+
+        List<Path> segments = segments();
+        assertThat(segments).hasSizeGreaterThan(1);
+        Files.write(segments.get(segments.size() - 1), "http://torn.example/pa".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        PersistentUrlFrontier resumed = resume();
+        List<String> remaining = drain(resumed, Integer.MAX_VALUE);
+        assertThat(remaining).hasSize(urls.size() - completed.size()).doesNotContain("http://torn.example/pa");
+        assertThat(resumed.isFinished()).isTrue();
+    }
+
+    @Test
+    void urlsOfReadyHostsAreNotStuckBehindASlowHostInMemory() throws Exception {
+        PersistentUrlFrontier frontier = PersistentUrlFrontier.create(directory,
+            new HostPolitenessScheduler(0, Map.of("slow.example", 60_000L)),
+            new VisitedUrlSet(100, false), 4, SEGMENT_BYTES, 10);
+        for (int i = 0; i < 6; i++) {
+            frontier.offer("http://slow.example/" + i);
+        }
+        frontier.offer("http://fast.example/0");
+
+        String first = frontier.take();
+        frontier.release(first, true);
+        frontier.complete(first);
+        // The rest of the slow host waits a minute; the fast URL is still on disk
+        assertThat(frontier.take()).isEqualTo("http://fast.example/0");
+    }
+
+    private PersistentUrlFrontier create() throws IOException {
+        return PersistentUrlFrontier.create(directory, new HostPolitenessScheduler(0),
+            new VisitedUrlSet(1000, false), MEMORY_CAPACITY, SEGMENT_BYTES, 10);
+    }
+
+    private PersistentUrlFrontier resume() throws IOException {
+        return PersistentUrlFrontier.resume(directory, new HostPolitenessScheduler(0),
+            new VisitedUrlSet(1000, false), MEMORY_CAPACITY, SEGMENT_BYTES, 10);
+    }
+
+    private static List<String> urls(int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            urls.add("http://host" + (i % 7) + ".example/page-" + i);
+        }
+        return urls;
+    }
+
+    // Takes, releases and completes up to max URLs, stopping once every accepted URL is completed
+    private static List<String> drain(PersistentUrlFrontier frontier, int max) throws InterruptedException {
+        List<String> done = new ArrayList<>();
+        while (done.size() < max && !frontier.isFinished()) {
+            String url = frontier.take();
+            frontier.release(url, true);
+            frontier.complete(url);
+            done.add(url);
+        }
+        return done;
+    }
+
+    private static List<String> take(PersistentUrlFrontier frontier, int count) throws InterruptedException {
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String url = frontier.take();
+            frontier.release(url, true);
+            taken.add(url);
+        }
+        return taken;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+}
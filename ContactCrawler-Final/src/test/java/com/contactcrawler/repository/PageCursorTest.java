@@ -0,0 +1,79 @@
+package com.contactcrawler.repository;
+
+import com.contactcrawler.model.Organization;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsEverySortField() {
+        Organization org = organization(42L, "ООО \"Ромашка\" | филиал", "https://example.com/a?b=c",
+            LocalDateTime.of(2024, 5, 17, 13, 45, 7, 123_000_000));
+
+        for (PageCursor.SortField field : PageCursor.SortField.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                PageCursor cursor = PageCursor.decode(PageCursor.after(org, field, ascending).encode());
+                assertThat(cursor.getSortField()).isEqualTo(field);
+                assertThat(cursor.isAscending()).isEqualTo(ascending);
+                assertThat(cursor.getLastId()).isEqualTo(42L);
+                assertThat(cursor.getLastValue()).isEqualTo(field.valueOf(org));
+            }
+        }
+    }
+
+    @Test
+    void keepsNullAndEmptyValuesApart() {
+        PageCursor nullWebsite = PageCursor.decode(
+            PageCursor.after(organization(1L, "a", null, null), PageCursor.SortField.WEBSITE, true).encode());
+        PageCursor emptyWebsite = PageCursor.decode(
+            PageCursor.after(organization(1L, "a", "", null), PageCursor.SortField.WEBSITE, true).encode());
+        assertThat(nullWebsite.getLastValue()).isNull();
+        assertThat(emptyWebsite.getLastValue()).isEqualTo("");
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = PageCursor.after(organization(7L, "???>>>~~~", null, null),
+            PageCursor.SortField.NAME, true).encode();
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        for (String raw : new String[]{
+            "garbage",
+            "2|NAME|a|1|=x",
+            "1|COLOR|a|1|=x",
+            "1|NAME|up|1|=x",
+            "1|NAME|a|one|=x",
+            "1|NAME|a|1|x",
+            "1|CRAWLED_AT|a|1|=yesterday"
+        }) {
+            assertThatThrownBy(() -> PageCursor.decode(encode(raw)))
+                .as(raw)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> PageCursor.decode("not base64!"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Organization organization(Long id, String name, String website, LocalDateTime crawledAt) {
+        Organization org = new Organization();
+        org.setId(id);
+        org.setName(name);
+        org.setWebsite(website);
+        org.setCrawledAt(crawledAt);
+        return org;
+    }
+}
@@ -0,0 +1,43 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnAddedFingerprint() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(Fingerprints.of("http://example.com/page/" + i));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain(Fingerprints.of("http://example.com/page/" + i))).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredOne() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(Fingerprints.of("http://example.com/page/" + i));
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(Fingerprints.of("http://other.example/page/" + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain(Fingerprints.of("url" + i))).isFalse();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ContactScanner against the regular expressions and filters ContactParser
+ * used before it, on hand-picked and on random text.
+ */
+class ContactScannerTest {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}"
+    );
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile(
+        "(\\+?[0-9]{1,3}[-\\s]?)?\\(?[0-9]{1,4}\\)?[-\\s]?[0-9]{1,4}[-\\s]?[0-9]{1,9}"
+    );
+
+    // Characters both expressions care about, plus a few they do not
+    private static final String ALPHABET = "0123456789012345678901234567890123456789+()-  \t\n@@..._%abcxyzABZ-йЖ,;";
+
+    @Test
+    void matchesTheRegexOnTypicalPages() {
+        List<String> texts = List.of(
+            "Contact us: info@example.com, Sales@Example.co.uk or +7 (495) 123-45-67",
+            "Phone: 8 800 555 35 35, fax 8-495-1234567, email: a.b-c_d%e+f@sub.domain-x.org.",
+            "Тел.: +7(812)3334455; почта support@компания.рф и admin@mail.ru",
+            "Not an email: name@host, name@host.c, @example.com, name@.com and trailing dot x@y.zz.",
+            "Short numbers 123 45 67 and long 12345678901234567890123 and +1-234-567-8901x23",
+            "(495)1234567 (49)12-34 +380 44 123 4567 1-2-3-4-5-6-7-8",
+            "x@example.commercial.io and a.very.long.local.part.that.goes.on.and.on@example.com",
+            ""
+        );
+        for (String text : texts) {
+            assertSameAsRegex(text);
+        }
+    }
+
+    @Test
+    void matchesTheRegexOnRandomText() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            assertSameAsRegex(randomText(random, 1 + random.nextInt(60)));
+        }
+    }
+
+    @Test
+    void isEmailMatchesTheWholeStringExpression() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            String value = randomText(random, 1 + random.nextInt(20));
+            assertThat(ContactScanner.isEmail(value))
+                .as("isEmail(\"%s\")", value)
+                .isEqualTo(EMAIL_PATTERN.matcher(value).matches());
+        }
+        assertThat(ContactScanner.isEmail("info@example.com")).isTrue();
+        assertThat(ContactScanner.isEmail("info@example")).isFalse();
+    }
+
+    @Test
+    void normalizePhoneKeepsDigitsAndPlus() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            String value = randomText(random, random.nextInt(30));
+            assertThat(ContactScanner.normalizePhone(value)).isEqualTo(value.replaceAll("[^0-9+]", ""));
+        }
+    }
+
+    private static void assertSameAsRegex(String text) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        ContactScanner.scan(text, emails, phones);
+
+        assertThat(emails).as("emails of \"%s\"", text).isEqualTo(regexEmails(text));
+        assertThat(phones).as("phones of \"%s\"", text).isEqualTo(regexPhones(text));
+    }
+
+    private static Set<String> regexEmails(String text) {
+        Set<String> emails = new HashSet<>();
+        Matcher matcher = EMAIL_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String email = matcher.group().toLowerCase().trim();
+            if (email.length() < 50) {
+                emails.add(email);
+            }
+        }
+        return emails;
+    }
+
+    private static Set<String> regexPhones(String text) {
+        Set<String> phones = new HashSet<>();
+        Matcher matcher = PHONE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String phone = matcher.group().replaceAll("[^0-9+]", "").trim();
+            if (phone.length() >= 7 && phone.length() <= 20) {
+                phones.add(phone);
+            }
+        }
+        return phones;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
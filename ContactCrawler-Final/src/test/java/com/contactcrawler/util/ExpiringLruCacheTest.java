@@ -0,0 +1,106 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesOnceOverweight() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1, TimeUnit.HOURS, String::length);
+        cache.put("a", "xxxx");
+        cache.put("b", "xxxx");
+        // Reading "a" makes "b" the least recently used
+        assertThat(cache.get("a")).isEqualTo("xxxx");
+        cache.put("c", "xxxx");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("xxxx");
+        assertThat(cache.get("c")).isEqualTo("xxxx");
+        assertThat(cache.weight()).isEqualTo(8);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void replacingAnEntryUpdatesTheWeight() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1, TimeUnit.HOURS, String::length);
+        cache.put("a", "xxxxxx");
+        cache.put("a", "xx");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotStoreAValueHeavierThanTheWholeCache() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(3, 1, TimeUnit.HOURS, String::length);
+        cache.put("a", "xx");
+        cache.put("b", "xxxx");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("xx");
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(100, 50, TimeUnit.MILLISECONDS, v -> 1);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertThat(cache.get("a")).isEqualTo("1");
+        Thread.sleep(100);
+
+        List<String> visited = new ArrayList<>();
+        cache.forEach((key, value) -> visited.add(key));
+        assertThat(visited).isEmpty();
+        assertThat(cache.get("a")).isNull();
+        cache.evictExpired();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+        assertThat(cache.evictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void entriesPutWithAnAgeExpireThatMuchSooner() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(100, 1, TimeUnit.HOURS, v -> 1);
+        cache.put("old", "1", 2, TimeUnit.HOURS);
+        cache.put("recent", "2", 30, TimeUnit.MINUTES);
+        assertThat(cache.get("old")).isNull();
+        assertThat(cache.get("recent")).isEqualTo("2");
+    }
+
+    @Test
+    void readsKeepEntriesAliveWhenExpiringAfterAccess() throws InterruptedException {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(100, 200, TimeUnit.MILLISECONDS, v -> 1, true);
+        cache.put("read", "1");
+        cache.put("idle", "2");
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(50);
+            assertThat(cache.get("read")).isEqualTo("1");
+        }
+        assertThat(cache.get("idle")).isNull();
+    }
+
+    @Test
+    void computeIfAbsentCreatesOnlyMissingValues() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(100, 1, TimeUnit.HOURS, v -> 1);
+        assertThat(cache.computeIfAbsent("a", key -> key + "1")).isEqualTo("a1");
+        assertThat(cache.computeIfAbsent("a", key -> key + "2")).isEqualTo("a1");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void forEachStartsAtTheLeastRecentlyUsedEntry() {
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(100, 1, TimeUnit.HOURS, v -> 1);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.get("a");
+
+        List<String> keys = new ArrayList<>();
+        cache.forEach((key, value) -> keys.add(key));
+        assertThat(keys).containsExactly("b", "c", "a");
+    }
+}
@@ -0,0 +1,37 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintMapTest {
+
+    @Test
+    void putIfAbsentKeepsTheFirstValueLikeAHashMap() {
+        FingerprintMap map = new FingerprintMap(16, 2);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(5);
+        for (long i = 0; i < 100_000; i++) {
+            long key = random.nextInt(40_000) * 0xbf58476d1ce4e5b9L;
+            Long previous = reference.putIfAbsent(key, i);
+            assertThat(map.putIfAbsent(key, i)).isEqualTo(previous != null ? previous : FingerprintMap.NO_VALUE);
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        reference.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    }
+
+    @Test
+    void missingAndZeroKeys() {
+        FingerprintMap map = new FingerprintMap(10);
+        assertThat(map.get(42L)).isEqualTo(FingerprintMap.NO_VALUE);
+        assertThat(map.get(0L)).isEqualTo(FingerprintMap.NO_VALUE);
+        assertThat(map.putIfAbsent(0L, 7L)).isEqualTo(FingerprintMap.NO_VALUE);
+        assertThat(map.putIfAbsent(0L, 8L)).isEqualTo(7L);
+        assertThat(map.get(0L)).isEqualTo(7L);
+        assertThat(map.size()).isEqualTo(1);
+    }
+}
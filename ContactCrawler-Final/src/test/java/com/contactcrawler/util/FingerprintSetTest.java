@@ -0,0 +1,72 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintSetTest {
+
+    @Test
+    void behavesLikeAHashSetWhileGrowingPastTheExpectedSize() {
+        FingerprintSet set = new FingerprintSet(16, 4);
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            // Small range, so many values repeat
+            long value = random.nextInt(50_000) * 0xbf58476d1ce4e5b9L;
+            assertThat(set.add(value)).isEqualTo(reference.add(value));
+        }
+        assertThat(set.size()).isEqualTo(reference.size());
+        for (long value : reference) {
+            assertThat(set.contains(value)).isTrue();
+        }
+        assertThat(set.contains(12345L)).isEqualTo(reference.contains(12345L));
+    }
+
+    @Test
+    void acceptsZeroAsAFingerprint() {
+        FingerprintSet set = new FingerprintSet(10);
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAddsAcceptEveryValueExactlyOnce() throws Exception {
+        FingerprintSet set = new FingerprintSet(1000);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    // Every thread adds the same values
+                    for (int i = 1; i <= 20_000; i++) {
+                        if (set.add(Fingerprints.of("http://example.com/" + i))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(accepted.get()).isEqualTo(20_000);
+        assertThat(set.size()).isEqualTo(20_000);
+    }
+}
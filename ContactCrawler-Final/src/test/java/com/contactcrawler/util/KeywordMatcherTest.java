@@ -0,0 +1,73 @@
+package com.contactcrawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * KeywordMatcher against the lower-case-and-contains check ContactParser
+ * used for address keywords before it.
+ */
+class KeywordMatcherTest {
+
+    private static final KeywordMatcher MATCHER = new KeywordMatcher(ContactParser.DEFAULT_ADDRESS_KEYWORDS);
+
+    // Letters of the keywords in both cases, so random text hits and nearly hits them
+    private static final String ALPHABET = "улицапрсоектдмгоУЛИЦАПРОСЕКТДМГ. streavnuodcySTREAVNUODCY,1";
+
+    @Test
+    void matchesContainsOnAddresses() {
+        List<String> texts = List.of(
+            "г. Москва, ул. Тверская, д. 1",
+            "ГОРОД Санкт-Петербург, Невский ПРОСПЕКТ 28",
+            "221B Baker Street, London",
+            "1600 Pennsylvania AVENUE NW",
+            "Abbey Road Studios",
+            "New York City",
+            "Москва, Тверская 1",
+            "Главная страница компании",
+            "домашняя страница",
+            "Kitty",
+            ""
+        );
+        for (String text : texts) {
+            assertThat(MATCHER.containsAny(text)).as("\"%s\"", text).isEqualTo(containsKeyword(text));
+        }
+    }
+
+    @Test
+    void matchesContainsOnRandomText() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(25);
+            for (int k = 0; k < length; k++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertThat(MATCHER.containsAny(text)).as("\"%s\"", text).isEqualTo(containsKeyword(text.toString()));
+        }
+    }
+
+    @Test
+    void ignoresBlankKeywordsAndNullText() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(" Street ", "", "  "));
+        assertThat(matcher.getKeywords()).containsExactly("street");
+        assertThat(matcher.containsAny("MAIN STREET 1")).isTrue();
+        assertThat(matcher.containsAny(null)).isFalse();
+        assertThat(new KeywordMatcher(List.of()).containsAny("street")).isFalse();
+    }
+
+    private static boolean containsKeyword(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        return lower.contains("ул.") || lower.contains("улица") ||
+               lower.contains("пр.") || lower.contains("проспект") ||
+               lower.contains("д.") || lower.contains("дом") ||
+               lower.contains("г.") || lower.contains("город") ||
+               lower.contains("street") || lower.contains("avenue") ||
+               lower.contains("road") || lower.contains("city");
+    }
+}